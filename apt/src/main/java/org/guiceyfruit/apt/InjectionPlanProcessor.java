@@ -0,0 +1,452 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.apt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor which generates an <code>org.guiceyfruit.support.InjectionPlan</code>
+ * for each class it compiles which declares members with any of the GuiceyFruit annotations,
+ * listing those fields and methods so that GuiceyFruit can find them at runtime without scanning
+ * every member of the class via reflection.
+ *
+ * The processor also writes the index <code>META-INF/guiceyfruit/annotation.index</code> of the
+ * classes which have members with the annotations, declared or inherited from a superclass, so
+ * that GuiceyFruit can ignore all other types, and of the classes which have a plan; see
+ * <code>org.guiceyfruit.support.AnnotationIndex</code>. As an incremental build only compiles
+ * the changed classes, the entries of the index left by a previous build are kept for the classes
+ * not compiled again; if the annotation types have changed the index only covers those common to
+ * both builds.
+ *
+ * Plans are generated for the {@link #DEFAULT_ANNOTATIONS}; other annotations used with
+ * <code>bindAnnotationInjector</code> or <code>bindMethodHandler</code> can be added as a comma
+ * separated list with the <code>-Aguiceyfruit.annotations=...</code> compiler option. Types whose
+ * plan does not cover all of the annotations an injector uses are scanned via reflection.
+ *
+ * @version $Revision: 1.1 $
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(InjectionPlanProcessor.ANNOTATIONS_OPTION)
+public class InjectionPlanProcessor extends AbstractProcessor {
+  /** The compiler option used to add more annotation types to the plans */
+  public static final String ANNOTATIONS_OPTION = "guiceyfruit.annotations";
+
+  /** The annotation types supported by the GuiceyFruit modules */
+  public static final String[] DEFAULT_ANNOTATIONS = {"javax.annotation.Resource",
+      "javax.annotation.PostConstruct", "javax.annotation.PreDestroy",
+      "javax.persistence.PersistenceContext", "javax.ejb.EJB", "org.guiceyfruit.Configures"};
+
+  // must match org.guiceyfruit.support.InjectionPlan which this module does not depend on
+  private static final String PLAN_CLASS = "org.guiceyfruit.support.InjectionPlan";
+  private static final String SUFFIX = "$$InjectionPlan";
+  private static final String INDEX = "META-INF/guiceyfruit/annotation.index";
+  private static final String ANNOTATIONS_KEY = "@annotations";
+  private static final String PLANS_KEY = "@plans";
+
+  private final Set<String> annotationTypes = new LinkedHashSet<String>(
+      Arrays.asList(DEFAULT_ANNOTATIONS));
+  private final Map<String, Set<String>> index = new TreeMap<String, Set<String>>();
+  private final Set<String> compiledTypes = new HashSet<String>();
+  private final Set<String> plans = new TreeSet<String>();
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+
+    String option = processingEnv.getOptions().get(ANNOTATIONS_OPTION);
+    if (option != null) {
+      for (String annotationType : option.split(",")) {
+        annotationType = annotationType.trim();
+        if (annotationType.length() > 0) {
+          annotationTypes.add(annotationType);
+        }
+      }
+    }
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getRootElements()) {
+      processType(element);
+    }
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    }
+    // lets not claim the annotations so other processors can see them
+    return false;
+  }
+
+  protected void processType(Element element) {
+    if (element.getKind().isClass()) {
+      TypeElement type = (TypeElement) element;
+      if (!type.getQualifiedName().toString().endsWith(SUFFIX)) {
+        writePlan(type);
+        addToIndex(type);
+      }
+    }
+    for (Element enclosed : element.getEnclosedElements()) {
+      if (enclosed instanceof TypeElement) {
+        processType(enclosed);
+      }
+    }
+  }
+
+  protected void writePlan(TypeElement type) {
+    List<String> fields = new ArrayList<String>();
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      if (isAnnotated(field)) {
+        fields.add(field.getSimpleName().toString());
+      }
+    }
+
+    // the annotated methods of the superclasses which are hidden by a method of this type
+    Set<String> superclassMethods = new HashSet<String>();
+    for (TypeElement supertype = getSuperclass(type); supertype != null;
+        supertype = getSuperclass(supertype)) {
+      for (ExecutableElement method : ElementFilter.methodsIn(supertype.getEnclosedElements())) {
+        if (isAnnotated(method)) {
+          String descriptor = getDescriptor(method);
+          if (descriptor == null) {
+            leaveToReflection(type);
+            return;
+          }
+          superclassMethods.add(descriptor);
+        }
+      }
+    }
+
+    List<String> methods = new ArrayList<String>();
+    List<String> overridingMethods = new ArrayList<String>();
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      boolean annotated = isAnnotated(method);
+      if (annotated || !superclassMethods.isEmpty()) {
+        String descriptor = getDescriptor(method);
+        if (descriptor == null) {
+          // the type has errors so lets leave it to reflection
+          leaveToReflection(type);
+          return;
+        }
+        if (annotated) {
+          methods.add(descriptor);
+        }
+        else if (superclassMethods.contains(descriptor)) {
+          overridingMethods.add(descriptor);
+        }
+      }
+    }
+
+    if (fields.isEmpty() && methods.isEmpty() && overridingMethods.isEmpty()) {
+      // the index tells GuiceyFruit that the class has no plan as there is nothing to inject
+      return;
+    }
+
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    plans.add(binaryName);
+    PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+    String packageName = packageElement.isUnnamed() ? ""
+        : packageElement.getQualifiedName().toString();
+    String className = binaryName.substring(packageName.length() == 0 ? 0
+        : packageName.length() + 1) + SUFFIX;
+
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(binaryName + SUFFIX, type);
+      Writer writer = file.openWriter();
+      try {
+        if (packageName.length() > 0) {
+          writer.write("package " + packageName + ";\n\n");
+        }
+        writer.write("/** The GuiceyFruit injection plan of {@code " + binaryName + "} */\n");
+        writer.write("public final class " + className + " extends " + PLAN_CLASS + " {\n");
+        writeMethod(writer, "getAnnotationTypes", annotationTypes);
+        writeMethod(writer, "getAnnotatedFields", fields);
+        writeMethod(writer, "getAnnotatedMethods", methods);
+        writeMethod(writer, "getOverridingMethods", overridingMethods);
+        writer.write("}\n");
+      }
+      finally {
+        writer.close();
+      }
+    }
+    catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Failed to write the injection plan for " + binaryName + ". Reason: " + e, type);
+    }
+  }
+
+  /**
+   * Lists the type as having a plan without generating one, so that GuiceyFruit looks for the
+   * plan, does not find it and scans the type via reflection
+   */
+  private void leaveToReflection(TypeElement type) {
+    plans.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+  }
+
+  protected void addToIndex(TypeElement type) {
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    compiledTypes.add(binaryName);
+    Set<String> annotations = new TreeSet<String>();
+    for (TypeElement element = type; element != null; element = getSuperclass(element)) {
+      for (Element member : element.getEnclosedElements()) {
+        if (member instanceof VariableElement || member instanceof ExecutableElement) {
+          for (AnnotationMirror mirror : member.getAnnotationMirrors()) {
+            String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                .toString();
+            if (annotationTypes.contains(name)) {
+              annotations.add(name);
+            }
+          }
+        }
+      }
+    }
+    if (!annotations.isEmpty()) {
+      index.put(binaryName, annotations);
+    }
+  }
+
+  protected void writeIndex() {
+    Properties properties = new Properties();
+    Properties previous = readPreviousIndex();
+    for (Map.Entry<Object, Object> entry : previous.entrySet()) {
+      if (!compiledTypes.contains(entry.getKey())) {
+        properties.put(entry.getKey(), entry.getValue());
+      }
+    }
+    Set<String> allPlans = new TreeSet<String>(plans);
+    for (String name : split(previous.getProperty(PLANS_KEY))) {
+      if (!compiledTypes.contains(name)) {
+        allPlans.add(name);
+      }
+    }
+    // the entries kept from a build with other annotation types only cover the common ones
+    Set<String> covered = new LinkedHashSet<String>(annotationTypes);
+    if (previous.containsKey(ANNOTATIONS_KEY)) {
+      covered.retainAll(split(previous.getProperty(ANNOTATIONS_KEY)));
+    }
+    properties.setProperty(ANNOTATIONS_KEY, join(covered));
+    properties.setProperty(PLANS_KEY, join(allPlans));
+    for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+      properties.setProperty(entry.getKey(), join(entry.getValue()));
+    }
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          INDEX);
+      OutputStream out = file.openOutputStream();
+      try {
+        properties.store(out, "GuiceyFruit annotation index");
+      }
+      finally {
+        out.close();
+      }
+    }
+    catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Failed to write the annotation index " + INDEX + ". Reason: " + e);
+    }
+  }
+
+  /**
+   * Returns the index written to the output directory by a previous build or an empty index if
+   * there is none
+   */
+  protected Properties readPreviousIndex() {
+    Properties properties = new Properties();
+    try {
+      FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+          INDEX);
+      InputStream in = file.openInputStream();
+      try {
+        properties.load(in);
+      }
+      finally {
+        in.close();
+      }
+    }
+    catch (IOException e) {
+      // there is no previous index
+      return new Properties();
+    }
+    return properties;
+  }
+
+  private static Set<String> split(String text) {
+    Set<String> answer = new TreeSet<String>();
+    if (text != null) {
+      for (String value : text.split(",")) {
+        if (value.length() > 0) {
+          answer.add(value);
+        }
+      }
+    }
+    return answer;
+  }
+
+  private static String join(Iterable<String> values) {
+    StringBuilder builder = new StringBuilder();
+    for (String value : values) {
+      if (builder.length() > 0) {
+        builder.append(',');
+      }
+      builder.append(value);
+    }
+    return builder.toString();
+  }
+
+  private void writeMethod(Writer writer, String name, Iterable<String> values)
+      throws IOException {
+    writer.write("  public String[] " + name + "() {\n    return new String[] {");
+    boolean first = true;
+    for (String value : values) {
+      if (!first) {
+        writer.write(", ");
+      }
+      first = false;
+      writer.write("\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"");
+    }
+    writer.write("};\n  }\n");
+  }
+
+  protected boolean isAnnotated(Element element) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+      if (annotationTypes.contains(annotationType.getQualifiedName().toString())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private TypeElement getSuperclass(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    if (superclass.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    TypeElement answer = (TypeElement) ((DeclaredType) superclass).asElement();
+    if (answer.getQualifiedName().contentEquals("java.lang.Object")) {
+      return null;
+    }
+    return answer;
+  }
+
+  /**
+   * Returns the method as <code>name(parameterType,...)</code> using the {@link Class#getName()}
+   * of the erasure of each parameter type or null if a type could not be resolved
+   */
+  protected String getDescriptor(ExecutableElement method) {
+    StringBuilder builder = new StringBuilder(method.getSimpleName());
+    builder.append('(');
+    boolean first = true;
+    for (VariableElement parameter : method.getParameters()) {
+      String name = getClassName(parameter.asType());
+      if (name == null) {
+        return null;
+      }
+      if (!first) {
+        builder.append(',');
+      }
+      first = false;
+      builder.append(name);
+    }
+    return builder.append(')').toString();
+  }
+
+  private String getClassName(TypeMirror type) {
+    type = processingEnv.getTypeUtils().erasure(type);
+    if (type.getKind().isPrimitive()) {
+      return type.toString();
+    }
+    else if (type.getKind() == TypeKind.ARRAY) {
+      String component = getArrayComponentName(((ArrayType) type).getComponentType());
+      return component == null ? null : "[" + component;
+    }
+    else if (type.getKind() == TypeKind.DECLARED) {
+      TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+      return processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+    return null;
+  }
+
+  private String getArrayComponentName(TypeMirror type) {
+    type = processingEnv.getTypeUtils().erasure(type);
+    switch (type.getKind()) {
+      case BOOLEAN:
+        return "Z";
+      case BYTE:
+        return "B";
+      case CHAR:
+        return "C";
+      case SHORT:
+        return "S";
+      case INT:
+        return "I";
+      case LONG:
+        return "J";
+      case FLOAT:
+        return "F";
+      case DOUBLE:
+        return "D";
+      case ARRAY:
+        String component = getArrayComponentName(((ArrayType) type).getComponentType());
+        return component == null ? null : "[" + component;
+      case DECLARED:
+        String name = getClassName(type);
+        return name == null ? null : "L" + name + ";";
+      default:
+        return null;
+    }
+  }
+}
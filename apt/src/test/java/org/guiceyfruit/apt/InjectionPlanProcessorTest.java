@@ -0,0 +1,202 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.apt;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import junit.framework.TestCase;
+import org.guiceyfruit.support.AnnotationIndex;
+import org.guiceyfruit.support.InjectionPlan;
+import org.guiceyfruit.support.InjectionPlans;
+import org.guiceyfruit.support.InjectionPlans.Members;
+
+/** @version $Revision: 1.1 $ */
+public class InjectionPlanProcessorTest extends TestCase {
+  protected File outputDir = new File("target/apt-test-classes");
+  protected ClassLoader classLoader;
+
+  @Override
+  protected void setUp() throws Exception {
+    outputDir.mkdirs();
+
+    List<JavaFileObject> sources = Arrays.asList(
+        source("sample.Base", "package sample;\n"
+            + "public class Base {\n"
+            + "  @javax.annotation.PostConstruct public void init() {}\n"
+            + "  @javax.annotation.PostConstruct public void start() {}\n"
+            + "}\n"),
+        source("sample.Bean", "package sample;\n"
+            + "public class Bean extends Base {\n"
+            + "  @javax.annotation.Resource String name;\n"
+            + "  String other;\n"
+            + "  @javax.annotation.Resource void setValues(String[] values, int count) {}\n"
+            + "  public void init() {}\n"
+            + "  public static class Nested {\n"
+            + "    @javax.annotation.Resource Object value;\n"
+            + "  }\n"
+            + "}\n"),
+        source("sample.Plain", "package sample;\n"
+            + "public class Plain {\n"
+            + "  String name;\n"
+            + "  public Object newBase() { return new Base() {}; }\n"
+            + "  public Object newResource() {\n"
+            + "    return new Object() { @javax.annotation.Resource String value; };\n"
+            + "  }\n"
+            + "}\n"));
+    classLoader = compile(sources);
+  }
+
+  public void testPlanListsAnnotatedMembers() throws Exception {
+    Class<?> type = classLoader.loadClass("sample.Bean");
+    Members members = InjectionPlans.getMembers(type);
+    assertNotNull("plan", members);
+    assertTrue("covers @Resource", members.covers(Resource.class));
+
+    assertEquals("fields", 1, members.getFields().length);
+    assertEquals("field", "name", members.getFields()[0].getName());
+
+    assertEquals("methods", 1, members.getMethods().length);
+    assertEquals("method", type.getDeclaredMethod("setValues", String[].class, int.class),
+        members.getMethods()[0]);
+
+    assertEquals("overriding methods", 1, members.getOverridingMethods().length);
+    assertEquals("overriding method", "init", members.getOverridingMethods()[0].getName());
+  }
+
+  public void testOverriddenMethodsAreIgnored() throws Exception {
+    Class<?> type = classLoader.loadClass("sample.Bean");
+    List<Method> methods = InjectionPlans.getAnnotatedMethods(type, PostConstruct.class);
+    assertEquals("methods", 1, methods.size());
+    assertEquals("method", "start", methods.get(0).getName());
+  }
+
+  public void testPlanForNestedClass() throws Exception {
+    Class<?> type = classLoader.loadClass("sample.Bean$Nested");
+    Members members = InjectionPlans.getMembers(type);
+    assertNotNull("plan", members);
+    assertEquals("field", "value", members.getFields()[0].getName());
+  }
+
+  public void testNoPlanIsGeneratedForClassWithoutAnnotatedMembers() throws Exception {
+    try {
+      classLoader.loadClass("sample.Plain" + InjectionPlan.SUFFIX);
+      fail("generated a plan for a class without annotated members");
+    }
+    catch (ClassNotFoundException e) {
+      // expected
+    }
+    Members members = InjectionPlans.getMembers(classLoader.loadClass("sample.Plain"));
+    assertNotNull("plain is known to have no annotated members", members);
+    assertTrue("covers @Resource", members.covers(Resource.class));
+    assertEquals("fields", 0, members.getFields().length);
+    assertEquals("methods", 0, members.getMethods().length);
+  }
+
+  public void testClassesOutsideTheIndexedLocationsHaveNoPlan() throws Exception {
+    assertNull("plan of unindexed class", InjectionPlans.getMembers(UnindexedBean.class));
+  }
+
+  public void testIndexListsAnnotatedClasses() throws Exception {
+    AnnotationIndex index = AnnotationIndex.getIndex(classLoader);
+    assertNotNull("index", index);
+    assertTrue("covers @Resource", index.covers(Resource.class));
+
+    Class<?> bean = classLoader.loadClass("sample.Bean");
+    assertTrue("bean has @Resource", index.hasAnnotation(bean, Resource.class));
+    assertTrue("bean inherits @PostConstruct", index.hasAnnotation(bean, PostConstruct.class));
+    assertFalse("plain has @Resource",
+        index.hasAnnotation(classLoader.loadClass("sample.Plain"), Resource.class));
+  }
+
+  public void testAnonymousClassesAreLookedUpByTheirSuperclass() throws Exception {
+    AnnotationIndex index = AnnotationIndex.getIndex(classLoader);
+    Object plain = classLoader.loadClass("sample.Plain").newInstance();
+
+    Class<?> base = plain.getClass().getMethod("newBase").invoke(plain).getClass();
+    assertTrue("anonymous base inherits @PostConstruct",
+        index.hasAnnotation(base, PostConstruct.class));
+    assertFalse("anonymous base has @Resource", index.hasAnnotation(base, Resource.class));
+
+    Class<?> resource = plain.getClass().getMethod("newResource").invoke(plain).getClass();
+    assertNull("annotations of anonymous class", index.findAnnotations(resource));
+    assertTrue("anonymous class has @Resource", index.hasAnnotation(resource, Resource.class));
+  }
+
+  public void testClassesOutsideTheIndexedLocationsAreNotTrusted() throws Exception {
+    AnnotationIndex index = AnnotationIndex.getIndex(classLoader);
+    assertNull("annotations of unindexed class", index.findAnnotations(UnindexedBean.class));
+    assertTrue("unindexed class has @Resource",
+        index.hasAnnotation(UnindexedBean.class, Resource.class));
+  }
+
+  public void testIncrementalCompileKeepsTheIndexOfOtherClasses() throws Exception {
+    classLoader = compile(Arrays.asList(source("sample.Changed", "package sample;\n"
+        + "public class Changed {\n"
+        + "  @javax.annotation.Resource String name;\n"
+        + "}\n")));
+    AnnotationIndex index = AnnotationIndex.getIndex(classLoader);
+
+    assertTrue("changed class has @Resource",
+        index.hasAnnotation(classLoader.loadClass("sample.Changed"), Resource.class));
+    Class<?> bean = classLoader.loadClass("sample.Bean");
+    assertTrue("unchanged bean has @Resource", index.hasAnnotation(bean, Resource.class));
+    assertTrue("unchanged bean inherits @PostConstruct",
+        index.hasAnnotation(bean, PostConstruct.class));
+    assertNotNull("plan of unchanged bean", InjectionPlans.getMembers(bean));
+  }
+
+  public static class UnindexedBean {
+    @Resource
+    String name;
+  }
+
+  /** Compiles the sources into the output directory, returning a class loader for them */
+  protected ClassLoader compile(List<JavaFileObject> sources) throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    CompilationTask task = compiler.getTask(null, null, null, Arrays.asList("-d",
+        outputDir.getPath(), "-classpath", System.getProperty("java.class.path")), null, sources);
+    task.setProcessors(Arrays.asList(new InjectionPlanProcessor()));
+    assertTrue("compiled", task.call());
+
+    return new URLClassLoader(new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader());
+  }
+
+  protected JavaFileObject source(String name, final String code) {
+    URI uri = URI.create(
+        "string:///" + name.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return code;
+      }
+    };
+  }
+}
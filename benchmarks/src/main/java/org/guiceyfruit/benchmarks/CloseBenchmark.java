@@ -0,0 +1,90 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Singleton;
+import com.google.inject.name.Names;
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import org.guiceyfruit.Injectors;
+import org.guiceyfruit.closers.ClosersModule;
+import org.guiceyfruit.support.CloseFailedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Injectors#close(Injector)} of an injector with a growing number of
+ * {@link Closeable} singletons. Guice keeps the singletons cached after they are closed so the
+ * same injector is closed on each invocation.
+ *
+ * @version $Revision: 1.1 $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloseBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int singletons;
+
+  private Injector injector;
+
+  @Setup
+  public void setUp() {
+    injector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        install(new ClosersModule());
+
+        for (int i = 0; i < singletons; i++) {
+          bind(Resource.class).annotatedWith(Names.named("resource" + i))
+              .to(Resource.class).in(Singleton.class);
+        }
+      }
+    });
+    for (int i = 0; i < singletons; i++) {
+      injector.getInstance(Key.get(Resource.class, Names.named("resource" + i)));
+    }
+  }
+
+  @Benchmark
+  public void close() throws CloseFailedException {
+    Injectors.close(injector);
+  }
+
+  public static class Resource implements Closeable {
+    public void close() {
+    }
+  }
+}
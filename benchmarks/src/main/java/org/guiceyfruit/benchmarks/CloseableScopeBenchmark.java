@@ -0,0 +1,76 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.benchmarks;
+
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import java.util.concurrent.TimeUnit;
+import org.guiceyfruit.testing.TestScoped;
+import org.guiceyfruit.util.CloseableScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures looking up an already cached object from a {@link CloseableScope} from one thread and
+ * from many threads contending for the same scope
+ *
+ * @version $Revision: 1.1 $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloseableScopeBenchmark {
+
+  private Provider<Object> scoped;
+
+  @Setup
+  public void setUp() {
+    CloseableScope scope = new CloseableScope(TestScoped.class);
+    scoped = scope.scope(Key.get(Object.class), new Provider<Object>() {
+      public Object get() {
+        return new Object();
+      }
+    });
+    scoped.get();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object get() {
+    return scoped.get();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object getContended() {
+    return scoped.get();
+  }
+}
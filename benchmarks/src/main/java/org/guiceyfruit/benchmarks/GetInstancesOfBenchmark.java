@@ -0,0 +1,86 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.guiceyfruit.Injectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Injectors#getInstancesOf(Injector, Class)} on injectors with a growing number of
+ * bindings, a tenth of which match the requested type
+ *
+ * @version $Revision: 1.1 $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetInstancesOfBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int bindings;
+
+  private Injector injector;
+
+  @Setup
+  public void setUp() {
+    injector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        for (int i = 0; i < bindings; i++) {
+          if (i % 10 == 0) {
+            bind(Service.class).annotatedWith(Names.named("service" + i))
+                .toInstance(new Service());
+          }
+          else {
+            bind(Other.class).annotatedWith(Names.named("other" + i)).toInstance(new Other());
+          }
+        }
+      }
+    });
+  }
+
+  @Benchmark
+  public Set<Service> getInstancesOf() {
+    return Injectors.getInstancesOf(injector, Service.class);
+  }
+
+  public static class Service {
+  }
+
+  public static class Other {
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Resource;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.guiceyfruit.jpa.JpaModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of creating an object whose dependencies are injected via the GuiceyFruit
+ * {@link Resource} and {@link PersistenceContext} annotation injectors with plain Guice
+ * {@link Inject} injection
+ *
+ * @version $Revision: 1.1 $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionBenchmark {
+
+  private Injector plainInjector;
+  private Injector guiceyInjector;
+
+  @Setup
+  public void setUp() {
+    final Dependency dependency = new Dependency();
+    final EntityManager entityManager = newEntityManager();
+
+    plainInjector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        bind(Dependency.class).toInstance(dependency);
+        bind(EntityManager.class).toInstance(entityManager);
+      }
+    });
+
+    guiceyInjector = Guice.createInjector(new JpaModule() {
+      protected void configure() {
+        super.configure();
+
+        bindInstance("dependency", dependency);
+        bind(EntityManager.class).toInstance(entityManager);
+      }
+    });
+  }
+
+  @Benchmark
+  public Object plainInject() {
+    return plainInjector.getInstance(PlainBean.class);
+  }
+
+  @Benchmark
+  public Object plainInjectOnGuiceyInjector() {
+    return guiceyInjector.getInstance(PlainBean.class);
+  }
+
+  @Benchmark
+  public Object resourceInject() {
+    return guiceyInjector.getInstance(ResourceBean.class);
+  }
+
+  @Benchmark
+  public Object persistenceContextInject() {
+    return guiceyInjector.getInstance(PersistenceContextBean.class);
+  }
+
+  /** Creates a do nothing entity manager so that no JPA provider is required */
+  private static EntityManager newEntityManager() {
+    return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+        new Class<?>[]{EntityManager.class}, new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("hashCode")) {
+              return System.identityHashCode(proxy);
+            }
+            if (method.getName().equals("equals")) {
+              return proxy == args[0];
+            }
+            return null;
+          }
+        });
+  }
+
+  public static class Dependency {
+  }
+
+  public static class PlainBean {
+    @Inject
+    Dependency dependency;
+
+    @Inject
+    EntityManager entityManager;
+  }
+
+  public static class ResourceBean {
+    @Resource
+    Dependency dependency;
+  }
+
+  public static class PersistenceContextBean {
+    @PersistenceContext
+    EntityManager entityManager;
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.naming.Context;
+import javax.naming.NamingException;
+import org.guiceyfruit.jndi.internal.JndiContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JndiContext#lookup(String)} of names at various depths, both from the root
+ * context and by walking down through each sub context
+ *
+ * @version $Revision: 1.1 $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JndiLookupBenchmark {
+
+  @Param({"1", "3", "6"})
+  public int depth;
+
+  private JndiContext context;
+  private String name;
+  private String[] segments;
+
+  @Setup
+  public void setUp() throws Exception {
+    segments = new String[depth];
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      segments[i] = "level" + i;
+      if (i > 0) {
+        builder.append(JndiContext.SEPARATOR);
+      }
+      builder.append(segments[i]);
+    }
+    name = builder.toString();
+
+    context = new JndiContext();
+    context.bind(name, new Object());
+    for (int i = 0; i < 100; i++) {
+      context.bind("other" + i, new Object());
+    }
+    context.freeze();
+  }
+
+  @Benchmark
+  public Object lookup() throws NamingException {
+    return context.lookup(name);
+  }
+
+  @Benchmark
+  public Object lookupBySubContext() throws NamingException {
+    Object answer = context;
+    for (String segment : segments) {
+      answer = ((Context) answer).lookup(segment);
+    }
+    return answer;
+  }
+}
@@ -19,6 +19,7 @@
 package org.guiceyfruit;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.inject.AbstractModule;
 import com.google.inject.Binding;
@@ -34,6 +35,8 @@ import com.google.inject.internal.BindingImpl;
 import com.google.inject.internal.Scoping;
 import com.google.inject.matcher.Matcher;
 import com.google.inject.name.Names;
+import com.google.inject.spi.DefaultBindingScopingVisitor;
+import com.google.inject.spi.Elements;
 import com.google.inject.util.Modules;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -47,22 +50,53 @@ import org.guiceyfruit.jndi.GuiceInitialContextFactory;
 import org.guiceyfruit.jndi.internal.Classes;
 import org.guiceyfruit.support.CloseErrors;
 import org.guiceyfruit.support.CloseFailedException;
+import org.guiceyfruit.support.ClosePolicy;
 import org.guiceyfruit.support.Closer;
 import org.guiceyfruit.support.Closers;
-import org.guiceyfruit.support.CompositeCloser;
 import org.guiceyfruit.support.HasScopeAnnotation;
+import org.guiceyfruit.support.NamedProperties;
+import org.guiceyfruit.support.Predicate;
 import org.guiceyfruit.support.internal.CloseErrorsImpl;
+import org.guiceyfruit.util.WarmUpScope;
 import com.google.inject.spi.CachedValue;
 
 /** @version $Revision: 1.1 $ */
 public class Injectors {
   public static final String MODULE_CLASS_NAMES = "org.guiceyfruit.modules";
 
+  /**
+   * The property used by {@link #createInjector(Map, Module[])} to only bind the properties whose
+   * names start with one of the given prefixes, which are separated by whitespace or commas. It
+   * can be defined in the environment or as a system property.
+   */
+  public static final String PROPERTY_PREFIXES = "org.guiceyfruit.properties.prefixes";
+
+  /**
+   * The property used by {@link #createInjector(Map, Module[])} to only bind the properties which
+   * are referenced by the modules and the types they bind, along with any properties matching the
+   * {@link #PROPERTY_PREFIXES}. It can be defined in the environment or as a system property.
+   *
+   * The names are found by scanning the modules once before the injector is created, so the
+   * properties are not bound lazily. Names which are only looked up at runtime, such as by
+   * <code>getInstance(Key.get(String.class, Names.named(name)))</code> or by the members of an
+   * object passed to <code>injectMembers()</code> whose type is not bound, are not found and so
+   * are not bound unless they match the {@link #PROPERTY_PREFIXES}.
+   *
+   * @see NamedProperties#getReferencedNames(Iterable)
+   */
+  public static final String SCANNED_PROPERTIES = "org.guiceyfruit.properties.scanned";
+
   /**
    * Creates an injector from the given properties, loading any modules define by the {@link
    * #MODULE_CLASS_NAMES} property value (space separated) along with any other modules passed as an
    * argument.
    *
+   * If a {@link WarmUpScope} is bound it is started once the injector has been created.
+   *
+   * The string properties of the environment are bound as {@link com.google.inject.name.Named}
+   * constants; the {@link #PROPERTY_PREFIXES} and {@link #SCANNED_PROPERTIES} properties can be
+   * used to bind only the properties which are needed.
+   *
    * @param environment the properties used to create the injector
    * @param overridingModules any modules which override the modules referenced in the environment
    * such as to provide the actual JNDI context
@@ -71,13 +105,6 @@ public class Injectors {
       throws ClassNotFoundException, IllegalAccessException, InstantiationException {
     List<Module> modules = Lists.newArrayList();
 
-    // lets bind the properties
-    modules.add(new AbstractModule() {
-      protected void configure() {
-        Names.bindProperties(binder(), environment);
-      }
-    });
-
     Object moduleValue = environment.get(MODULE_CLASS_NAMES);
     if (moduleValue instanceof String) {
       String names = (String) moduleValue;
@@ -90,10 +117,72 @@ public class Injectors {
         }
       }
     }
+
+    if (isScannedProperties(environment)) {
+      // lets configure the modules only once, recording their elements to find the names they
+      // reference and then to create the injector
+      modules = Lists.newArrayList(Elements.getModule(Elements.getElements(modules)));
+      overridingModules = new Module[] {
+          Elements.getModule(Elements.getElements(overridingModules))};
+    }
+
+    // lets bind the properties
+    final Map<String, String> properties = getBoundProperties(environment, modules,
+        overridingModules);
+    modules.add(0, new AbstractModule() {
+      protected void configure() {
+        Names.bindProperties(binder(), properties);
+      }
+    });
+
     Injector injector = Guice.createInjector(Modules.override(modules).with(overridingModules));
+    if (hasBinding(injector, Key.get(WarmUpScope.class))) {
+      injector.getInstance(WarmUpScope.class).start(injector);
+    }
     return injector;
   }
 
+  /**
+   * Returns the properties of the environment to bind as named constants, filtered by the {@link
+   * #PROPERTY_PREFIXES} and {@link #SCANNED_PROPERTIES} properties if either is defined. To find
+   * the referenced names the modules are configured, so with {@link #SCANNED_PROPERTIES} they
+   * should be modules of recorded {@link Elements} to avoid configuring the original modules
+   * twice.
+   */
+  protected static Map<String, String> getBoundProperties(Map environment, List<Module> modules,
+      Module... overridingModules) {
+    Object prefixes = getEnvironmentValue(environment, PROPERTY_PREFIXES);
+    final Predicate<String> prefixFilter = prefixes != null
+        ? NamedProperties.prefixes(prefixes.toString()) : null;
+
+    Predicate<String> filter = prefixFilter;
+    if (isScannedProperties(environment)) {
+      final Set<String> names = NamedProperties.getReferencedNames(
+          Elements.getElements(Modules.override(modules).with(overridingModules)));
+      filter = new Predicate<String>() {
+        public boolean matches(String name) {
+          return names.contains(name) || (prefixFilter != null && prefixFilter.matches(name));
+        }
+      };
+    }
+    return NamedProperties.filter(environment, filter);
+  }
+
+  /** Returns true if the {@link #SCANNED_PROPERTIES} property is enabled */
+  private static boolean isScannedProperties(Map environment) {
+    Object scanned = getEnvironmentValue(environment, SCANNED_PROPERTIES);
+    return scanned != null && Boolean.valueOf(scanned.toString().trim());
+  }
+
+  /** Returns the value of the given property from the environment or the system properties */
+  private static Object getEnvironmentValue(Map environment, String name) {
+    Object value = environment.get(name);
+    if (value == null) {
+      value = System.getProperty(name);
+    }
+    return value;
+  }
+
   /**
    * Returns an instance of the given type with the {@link com.google.inject.name.Named}
    * annotation value.
@@ -325,25 +414,47 @@ public class Injectors {
    */
   public static void close(Injector injector, Class<? extends Annotation> scopeAnnotationToClose,
       CloseErrors errors) throws CloseFailedException {
-    Set<Closer> closers = getInstancesOf(injector, Closer.class);
-    Closer closer = CompositeCloser.newInstance(closers);
-    if (closer == null) {
+    ClosePolicy policy;
+    if (hasBinding(injector, Key.get(ClosePolicy.class))) {
+      policy = injector.getInstance(ClosePolicy.class);
+    }
+    else {
+      policy = new ClosePolicy();
+    }
+    close(injector, scopeAnnotationToClose, errors, policy);
+  }
+
+  /**
+   * Closes objects within the given scope using the currently registered {@link Closer}
+   * implementations with the timeouts and concurrency of the given policy
+   */
+  public static void close(Injector injector, Class<? extends Annotation> scopeAnnotationToClose,
+      CloseErrors errors, ClosePolicy policy) throws CloseFailedException {
+    // the closers of a child injector are usually bound in its parent
+    Set<Closer> closers = Sets.newHashSet();
+    for (Injector closerInjector = injector; closerInjector != null;
+        closerInjector = closerInjector.getParent()) {
+      closers.addAll(getInstancesOf(closerInjector, Closer.class));
+    }
+    if (closers.isEmpty()) {
       return;
     }
 
+    Map<Object, Object> objects = Maps.newLinkedHashMap();
     Set<Entry<Key<?>, Binding<?>>> entries = injector.getBindings().entrySet();
     for (Entry<Key<?>, Binding<?>> entry : entries) {
       Key<?> key = entry.getKey();
       Binding<?> binding = entry.getValue();
-      closeBinding(key, binding, scopeAnnotationToClose, closer, errors);
+      addScopedValue(key, binding, scopeAnnotationToClose, objects);
     }
-    
-    tryCloseJitBindings(closer, injector, scopeAnnotationToClose, errors);
+
+    addJitBindingScopedValues(injector, scopeAnnotationToClose, objects);
+    Closers.close(objects, closers, errors, policy);
     errors.throwIfNecessary();
   }
 
-  private static void tryCloseJitBindings(Closer closer, Injector injector,
-      Class<? extends Annotation> scopeAnnotationToClose, CloseErrors errors) {
+  private static void addJitBindingScopedValues(Injector injector,
+      Class<? extends Annotation> scopeAnnotationToClose, Map<Object, Object> objects) {
     Class<? extends Injector> type = injector.getClass();
     Field field;
     try {
@@ -355,7 +466,7 @@ public class Injectors {
           Map<Key<?>, BindingImpl<?>> map = (Map<Key<?>, BindingImpl<?>>) bindings;
           Set<Entry<Key<?>, BindingImpl<?>>> entries = map.entrySet();
           for (Entry<Key<?>, BindingImpl<?>> entry : entries) {
-            closeBinding(entry.getKey(), entry.getValue(), scopeAnnotationToClose, closer, errors);
+            addScopedValue(entry.getKey(), entry.getValue(), scopeAnnotationToClose, objects);
           }
         }
       }
@@ -370,8 +481,8 @@ public class Injectors {
     }
   }
 
-  private static void closeBinding(Key<?> key, Binding<?> binding,
-      Class<? extends Annotation> scopeAnnotationToClose, Closer closer, CloseErrors errors) {
+  private static void addScopedValue(Key<?> key, Binding<?> binding,
+      Class<? extends Annotation> scopeAnnotationToClose, Map<Object, Object> objects) {
     Provider<?> provider = binding.getProvider();
 
     Class<? extends Annotation> scopeAnnotation = getScopeAnnotation(binding);
@@ -379,12 +490,28 @@ public class Injectors {
         && provider instanceof CachedValue) {
       CachedValue cachedValue = (CachedValue) provider;
       Object value = cachedValue.getCachedValue();
-      if (value != null) {
-        Closers.close(key, value, closer, errors);
+      if (value != null && !objects.containsKey(key)) {
+        objects.put(key, value);
       }
     }
   }
 
+  /**
+   * Returns true if the given binding has been given a scope, either explicitly or by a scope
+   * annotation on its implementation
+   */
+  public static boolean isScoped(Binding<?> binding) {
+    return binding.acceptScopingVisitor(new DefaultBindingScopingVisitor<Boolean>() {
+      @Override protected Boolean visitOther() {
+        return true;
+      }
+
+      @Override public Boolean visitNoScoping() {
+        return false;
+      }
+    });
+  }
+
   /** Returns the scope annotation for the given binding or null if there is no scope */
   public static Class<? extends Annotation> getScopeAnnotation(Binding<?> binding) {
     Class<? extends Annotation> scopeAnnotation = null;
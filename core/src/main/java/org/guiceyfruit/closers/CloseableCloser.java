@@ -0,0 +1,73 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.closers;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import org.guiceyfruit.support.TypedCloser;
+
+/**
+ * Closes any {@link Closeable} object such as streams and channels. When running on Java 7 or later
+ * any <code>java.lang.AutoCloseable</code> object is closed too.
+ * <p>
+ * {@link ExecutorService} instances are left to the {@link ExecutorServiceCloser} so that they are
+ * drained gracefully.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class CloseableCloser implements TypedCloser {
+  private static final Class<?> AUTO_CLOSEABLE = loadAutoCloseable();
+
+  public boolean canClose(Class<?> type) {
+    if (ExecutorService.class.isAssignableFrom(type)) {
+      return false;
+    }
+    if (Closeable.class.isAssignableFrom(type)) {
+      return true;
+    }
+    return AUTO_CLOSEABLE != null && AUTO_CLOSEABLE.isAssignableFrom(type);
+  }
+
+  public void close(Object object) throws Throwable {
+    if (object instanceof Closeable) {
+      ((Closeable) object).close();
+    }
+    else if (AUTO_CLOSEABLE != null && AUTO_CLOSEABLE.isInstance(object)) {
+      Method method = AUTO_CLOSEABLE.getMethod("close");
+      try {
+        method.invoke(object);
+      }
+      catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+    }
+  }
+
+  private static Class<?> loadAutoCloseable() {
+    try {
+      return Class.forName("java.lang.AutoCloseable");
+    }
+    catch (ClassNotFoundException e) {
+      // running on Java 6
+      return null;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.closers;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Singleton;
+
+/**
+ * A module which installs the stock {@link org.guiceyfruit.support.Closer} implementations so that
+ * closing an injector or scope releases any {@link java.io.Closeable} objects, shuts down any
+ * {@link java.util.concurrent.ExecutorService} instances and cancels any {@link java.util.Timer}
+ * objects.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class ClosersModule extends AbstractModule {
+
+  @Override
+  protected void configure() {
+    bind(CloseableCloser.class).in(Singleton.class);
+    bind(ExecutorServiceCloser.class).in(Singleton.class);
+    bind(TimerCloser.class).in(Singleton.class);
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.closers;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.guiceyfruit.support.CloseTimeoutException;
+import org.guiceyfruit.support.TypedCloser;
+
+/**
+ * Gracefully shuts down an {@link ExecutorService}; the executor is asked to {@link
+ * ExecutorService#shutdown()} and to complete its queued tasks before it is forced to {@link
+ * ExecutorService#shutdownNow()}. The whole shut down takes at most {@link #getShutdownTimeout()}
+ * milliseconds; the last quarter of the timeout is kept for the tasks to stop once they have been
+ * interrupted.
+ * <p>
+ * The timeout can be configured using the {@link #SHUTDOWN_TIMEOUT} named constant.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class ExecutorServiceCloser implements TypedCloser {
+  public static final String SHUTDOWN_TIMEOUT = "org.guiceyfruit.closers.shutdownTimeout";
+
+  private long shutdownTimeout = 30000;
+
+  public boolean canClose(Class<?> type) {
+    return ExecutorService.class.isAssignableFrom(type);
+  }
+
+  public void close(Object object) throws Throwable {
+    ExecutorService executor = (ExecutorService) object;
+    long timeout = TimeUnit.MILLISECONDS.toNanos(shutdownTimeout);
+    long forcedTimeout = timeout / 4;
+    executor.shutdown();
+    try {
+      if (executor.awaitTermination(timeout - forcedTimeout, TimeUnit.NANOSECONDS)) {
+        return;
+      }
+      executor.shutdownNow();
+      if (!executor.awaitTermination(forcedTimeout, TimeUnit.NANOSECONDS)) {
+        throw new CloseTimeoutException(
+            "ExecutorService " + executor + " did not terminate within " + shutdownTimeout + "ms",
+            shutdownTimeout);
+      }
+    }
+    catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+  }
+
+  public long getShutdownTimeout() {
+    return shutdownTimeout;
+  }
+
+  /** Sets the time in milliseconds to wait for queued tasks to complete */
+  @Inject(optional = true)
+  public void setShutdownTimeout(@Named(SHUTDOWN_TIMEOUT) long shutdownTimeout) {
+    this.shutdownTimeout = shutdownTimeout;
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.jpa.support;
+
+/**
+ * The statistics of a single batch of writes flushed and cleared by an {@link
+ * EntityManagerBatcher}
+ *
+ * @version $Revision: 1.1 $
+ */
+public class BatchStatistics {
+  private final int operations;
+  private final long estimatedSize;
+  private final long batchNanos;
+  private final long flushNanos;
+  private final long clearNanos;
+
+  public BatchStatistics(int operations, long estimatedSize, long batchNanos, long flushNanos,
+      long clearNanos) {
+    this.operations = operations;
+    this.estimatedSize = estimatedSize;
+    this.batchNanos = batchNanos;
+    this.flushNanos = flushNanos;
+    this.clearNanos = clearNanos;
+  }
+
+  /** Returns the number of write operations in the batch */
+  public int getOperations() {
+    return operations;
+  }
+
+  /** Returns the estimated size in bytes of the state written in the batch */
+  public long getEstimatedSize() {
+    return estimatedSize;
+  }
+
+  /** Returns the time from the first operation of the batch until it was flushed and cleared */
+  public long getBatchNanos() {
+    return batchNanos;
+  }
+
+  /** Returns the time spent in {@link javax.persistence.EntityManager#flush()} */
+  public long getFlushNanos() {
+    return flushNanos;
+  }
+
+  /** Returns the time spent in {@link javax.persistence.EntityManager#clear()} */
+  public long getClearNanos() {
+    return clearNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "Batch[operations: " + operations + " estimatedSize: " + estimatedSize + " batch: "
+        + batchNanos / 1000000 + "ms flush: " + flushNanos / 1000000 + "ms clear: "
+        + clearNanos / 1000000 + "ms]";
+  }
+}
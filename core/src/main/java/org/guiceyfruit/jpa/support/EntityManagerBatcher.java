@@ -0,0 +1,227 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.jpa.support;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.name.Named;
+import java.util.Map;
+import javax.persistence.EntityManager;
+
+/**
+ * A facade over the injected {@link EntityManager} for components writing large volumes of
+ * entities which flushes and clears the persistence context every {@link #getBatchSize()}
+ * operations or once {@link #getBatchBytes()} bytes of estimated state have been written, so that
+ * the persistence context does not grow without bound.
+ * <p>
+ * The batch limits can be configured using the {@link #BATCH_SIZE} and {@link #BATCH_BYTES} named
+ * constants; the timings of each batch are passed to any bound {@link BatchListener}. Instances are
+ * not thread safe; each component should have its own batcher injected.
+ * <p>
+ * The entity manager is resolved at the start of each batch and used until the batch is flushed,
+ * so that a batcher used across transactions works with the entity manager of the current one.
+ * A {@link #setUnitName(String) unit name} selects a named entity manager in the same way as the
+ * name of a {@link javax.persistence.PersistenceContext} injected by {@link
+ * PersistenceMemberProvider}.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class EntityManagerBatcher {
+  public static final String BATCH_SIZE = "org.guiceyfruit.jpa.batchSize";
+  public static final String BATCH_BYTES = "org.guiceyfruit.jpa.batchBytes";
+
+  private final Provider<EntityManager> entityManagerProvider;
+  private Map<String, Provider<EntityManager>> namedEntityManagers;
+  private String unitName;
+  private EntityManager entityManager;
+  private int batchSize = 50;
+  private long batchBytes;
+  private EntitySizeEstimator sizeEstimator;
+  private BatchListener batchListener;
+
+  private int operations;
+  private long estimatedSize;
+  private long batchStart;
+  private int batchCount;
+  private long operationCount;
+  private BatchStatistics lastBatch;
+
+  @Inject
+  public EntityManagerBatcher(Provider<EntityManager> entityManagerProvider) {
+    this.entityManagerProvider = entityManagerProvider;
+  }
+
+  /** Persists the given entity, flushing and clearing the batch if a limit is reached */
+  public void persist(Object entity) {
+    EntityManager manager = getEntityManager();
+    manager.persist(entity);
+    written(manager, entity);
+  }
+
+  /** Merges the given entity, flushing and clearing the batch if a limit is reached */
+  public <T> T merge(T entity) {
+    EntityManager manager = getEntityManager();
+    T answer = manager.merge(entity);
+    written(manager, entity);
+    return answer;
+  }
+
+  /** Removes the given entity, flushing and clearing the batch if a limit is reached */
+  public void remove(Object entity) {
+    EntityManager manager = getEntityManager();
+    manager.remove(entity);
+    written(manager, entity);
+  }
+
+  /**
+   * Flushes and clears any pending operations of the current batch; this should be called once
+   * the last entity has been written
+   */
+  public void flush() {
+    if (operations == 0) {
+      return;
+    }
+    EntityManager manager = entityManager;
+    entityManager = null;
+
+    long flushStart = System.nanoTime();
+    manager.flush();
+    long clearStart = System.nanoTime();
+    manager.clear();
+    long end = System.nanoTime();
+
+    BatchStatistics statistics = new BatchStatistics(operations, estimatedSize, end - batchStart,
+        clearStart - flushStart, end - clearStart);
+    operations = 0;
+    estimatedSize = 0;
+    batchCount++;
+    lastBatch = statistics;
+    if (batchListener != null) {
+      batchListener.batchCompleted(statistics);
+    }
+  }
+
+  /**
+   * Returns the entity manager of the current batch or, if there are no pending operations, the
+   * entity manager the next batch will be started with
+   */
+  public EntityManager getEntityManager() {
+    if (entityManager != null) {
+      return entityManager;
+    }
+    return PersistenceMemberProvider.getEntityManagerProvider(unitName, entityManagerProvider,
+        namedEntityManagers).get();
+  }
+
+  /** Returns the number of pending operations in the current batch */
+  public int getPendingOperations() {
+    return operations;
+  }
+
+  /** Returns the number of batches which have been flushed */
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  /** Returns the total number of write operations performed */
+  public long getOperationCount() {
+    return operationCount;
+  }
+
+  /** Returns the statistics of the last flushed batch or null if no batch has been flushed */
+  public BatchStatistics getLastBatch() {
+    return lastBatch;
+  }
+
+  public String getUnitName() {
+    return unitName;
+  }
+
+  /**
+   * Sets the name of the persistence context whose entity manager is used, or null for the
+   * default entity manager, from the next batch
+   */
+  public void setUnitName(String unitName) {
+    this.unitName = unitName;
+  }
+
+  public Map<String, Provider<EntityManager>> getNamedEntityManagers() {
+    return namedEntityManagers;
+  }
+
+  @Inject(optional = true)
+  public void setNamedEntityManagers(Map<String, Provider<EntityManager>> namedEntityManagers) {
+    this.namedEntityManagers = namedEntityManagers;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /** Sets the maximum number of operations in a batch or zero for no operation limit */
+  @Inject(optional = true)
+  public void setBatchSize(@Named(BATCH_SIZE) int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public long getBatchBytes() {
+    return batchBytes;
+  }
+
+  /** Sets the maximum estimated size in bytes of a batch or zero for no size limit */
+  @Inject(optional = true)
+  public void setBatchBytes(@Named(BATCH_BYTES) long batchBytes) {
+    this.batchBytes = batchBytes;
+  }
+
+  public EntitySizeEstimator getSizeEstimator() {
+    return sizeEstimator;
+  }
+
+  @Inject(optional = true)
+  public void setSizeEstimator(EntitySizeEstimator sizeEstimator) {
+    this.sizeEstimator = sizeEstimator;
+  }
+
+  public BatchListener getBatchListener() {
+    return batchListener;
+  }
+
+  @Inject(optional = true)
+  public void setBatchListener(BatchListener batchListener) {
+    this.batchListener = batchListener;
+  }
+
+  /** Records an operation on the entity by the given entity manager */
+  protected void written(EntityManager manager, Object entity) {
+    if (operations == 0) {
+      batchStart = System.nanoTime();
+      entityManager = manager;
+    }
+    operations++;
+    operationCount++;
+    if (sizeEstimator != null) {
+      estimatedSize += sizeEstimator.estimateSize(entity);
+    }
+    if ((batchSize > 0 && operations >= batchSize)
+        || (batchBytes > 0 && estimatedSize >= batchBytes)) {
+      flush();
+    }
+  }
+}
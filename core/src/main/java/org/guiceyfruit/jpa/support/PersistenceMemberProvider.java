@@ -48,16 +48,30 @@ public class PersistenceMemberProvider extends AnnotationMemberProviderSupport<P
   protected Object provide(PersistenceContext annotation, Member member,
       TypeLiteral<?> requiredType, Class<?> memberType, Annotation[] annotations) {
 
-    Provider<EntityManager> provider = null;
+    return getEntityManagerProvider(annotation.name(), defaultEntityManager, namedEntityManagers)
+        .get();
+  }
 
-    String name = annotation.name();
+  /**
+   * Returns the provider of the entity manager for the given persistence context name; the named
+   * entity manager if there is one or the default entity manager
+   *
+   * @param name the name of the persistence context or null or empty for the default
+   * @param defaultEntityManager the provider of the default entity manager
+   * @param namedEntityManagers the providers of the entity managers by name or null if there are
+   * none
+   */
+  public static Provider<EntityManager> getEntityManagerProvider(String name,
+      Provider<EntityManager> defaultEntityManager,
+      Map<String, Provider<EntityManager>> namedEntityManagers) {
+    Provider<EntityManager> provider = null;
     if (namedEntityManagers != null && name != null && name.length() > 0) {
       provider = namedEntityManagers.get(name);
     }
     if (provider == null) {
       provider = defaultEntityManager;
     }
-    return provider.get();
+    return provider;
   }
 
   public boolean isNullParameterAllowed(PersistenceContext annotation, Method method,
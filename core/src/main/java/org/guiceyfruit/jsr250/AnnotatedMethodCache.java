@@ -23,6 +23,7 @@ import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
+import org.guiceyfruit.support.InjectionPlans;
 
 /**
  * A cache which maintains which method is annotated by a given annotation for each class
@@ -43,23 +44,22 @@ class AnnotatedMethodCache {
    */
   public Method getMethod(Class<?> type) {
     // if we are invoked concurrently it doesn't matter if we look up the method
-    // concurrently - its the same instance that will be overwritten in the map
+    // concurrently - its the same instance that will be overwritten in the map.
+    // Types without an annotated method are cached too so they are only scanned once
     Method method = methodCache.get(type);
-    if (method == null) {
+    if (method == null && !methodCache.containsKey(type)) {
       method = findMethodWithAnnotation(type, annotationType);
-      if (method != null) {
-        if (method.getParameterTypes().length != 0) {
-          throw new IllegalArgumentException("Method should have no arguments for @PostConstruct " + method);
-        }
-        methodCache.put(type, method);
+      if (method != null && method.getParameterTypes().length != 0) {
+        throw new IllegalArgumentException("Method should have no arguments for @PostConstruct " + method);
       }
+      methodCache.put(type, method);
     }
     return method;
   }
 
   protected Method findMethodWithAnnotation(Class<?> type,
       Class<? extends Annotation> annotationType) {
-    Method[] methods = type.getDeclaredMethods();
+    Method[] methods = InjectionPlans.getDeclaredMethods(type, annotationType);
     for (Method method : methods) {
       Annotation fromElement = method.getAnnotation(annotationType);
       if (fromElement != null) {
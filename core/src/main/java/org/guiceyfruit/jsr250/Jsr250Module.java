@@ -18,16 +18,15 @@
 
 package org.guiceyfruit.jsr250;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import com.google.inject.Singleton;
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import org.guiceyfruit.support.GuiceyFruitModule;
-import org.guiceyfruit.support.MethodHandler;
 
 /**
  * A module which installs JSR 250 lifecycle and injection using the {@link Resource} annotation.
+ * Post construct methods annotated with {@link AsyncPostConstruct} are invoked in the background
+ * and can be waited for using the {@link PostConstructBarrier}.
  *
  * @version $Revision: 1.1 $
  */
@@ -38,13 +37,9 @@ public class Jsr250Module extends GuiceyFruitModule {
 
     bindAnnotationInjector(Resource.class, ResourceMemberProvider.class);
 
-    bindMethodHandler(PostConstruct.class, new MethodHandler() {
-      public void afterInjection(Object injectee, Annotation annotation, Method method)
-          throws InvocationTargetException, IllegalAccessException {
-
-        method.invoke(injectee);
-      }
-    });
+    bind(PostConstructBarrier.class);
+    bind(PostConstructMethodHandler.class).in(Singleton.class);
+    bindMethodHandler(PostConstruct.class, PostConstructMethodHandler.class);
 
     bind(PreDestroyCloser.class);
   }
@@ -21,6 +21,7 @@ import com.google.inject.Binding;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Key;
+import com.google.inject.Provider;
 import com.google.inject.ProvisionException;
 import com.google.inject.TypeLiteral;
 import com.google.inject.name.Names;
@@ -43,15 +44,27 @@ public abstract class NamedProviderSupport<A extends Annotation> extends Annotat
     private Injector injector;
     private Context context;
 
-    public Context getContext() {
+    public synchronized Context getContext() {
         return context;
     }
 
     @Inject(optional = true)
-    public void setContext(Context context) {
+    public synchronized void setContext(Context context) {
         this.context = context;
     }
 
+    /**
+     * Looks up the given name in the JNDI context, creating the default initial context the first
+     * time it is needed if none has been injected. As a JNDI context is not thread safe the
+     * lookups are serialized.
+     */
+    protected synchronized Object lookupInJndi(String name) throws NamingException {
+        if (context == null) {
+            context = new InitialContext();
+        }
+        return context.lookup(name);
+    }
+
     protected Object provideObjectFromNamedBindingOrJndi(TypeLiteral<?> requiredType, String name) {
         Binding<?> binding = Injectors.getBinding(injector, Key.get(requiredType, Names.named(name)));
         if (binding != null) {
@@ -61,16 +74,57 @@ public abstract class NamedProviderSupport<A extends Annotation> extends Annotat
         // TODO we may want to try avoid the dependency on JNDI classes
         // for better operation in GAE?
         try {
-            if (context == null) {
-                context = new InitialContext();
-            }
-            return context.lookup(name);
+            return lookupInJndi(name);
         }
         catch (NamingException e) {
             throw new ProvisionException("Failed to find name '" + name + "' in JNDI. Cause: " + e, e);
         }
     }
 
+    /**
+     * Returns a provider which looks up the value from a named binding or JNDI the first time it is
+     * called, only once even if it is called concurrently. A binding is then used for each call,
+     * so its scope applies, while a value from JNDI is cached.
+     */
+    protected Provider<Object> provideLazilyFromNamedBindingOrJndi(final TypeLiteral<?> requiredType,
+                                                                   final String name) {
+        return new Provider<Object>() {
+            private volatile Provider<?> resolved;
+
+            public Object get() {
+                Provider<?> provider = resolved;
+                if (provider == null) {
+                    synchronized (this) {
+                        provider = resolved;
+                        if (provider == null) {
+                            provider = resolve();
+                            resolved = provider;
+                        }
+                    }
+                }
+                return provider.get();
+            }
+
+            private Provider<?> resolve() {
+                Binding<?> binding = Injectors.getBinding(injector,
+                        Key.get(requiredType, Names.named(name)));
+                if (binding != null) {
+                    return binding.getProvider();
+                }
+                final Object value = provideObjectFromNamedBindingOrJndi(requiredType, name);
+                return new Provider<Object>() {
+                    public Object get() {
+                        return value;
+                    }
+                };
+            }
+
+            @Override public String toString() {
+                return "Provider of " + requiredType + " named " + name;
+            }
+        };
+    }
+
     /**
      * if no valid name is present on the annotation then use the member name
      */
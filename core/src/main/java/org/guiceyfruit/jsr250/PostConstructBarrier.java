@@ -0,0 +1,220 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.jsr250;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.inject.Singleton;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PreDestroy;
+
+/**
+ * Invokes the {@link javax.annotation.PostConstruct} methods annotated with {@link
+ * AsyncPostConstruct} on background threads and allows callers to wait for the components they
+ * need to be ready.
+ *
+ * The asynchronous methods of a single object are invoked one after another in the order they
+ * were submitted; if one fails the later ones are not invoked and the failure is logged. Objects
+ * are tracked by identity using weak references so the barrier does not keep them alive and does
+ * not depend on their <code>equals</code> and <code>hashCode</code> methods. Once the barrier has
+ * been closed no more methods can be submitted.
+ *
+ * @version $Revision: 1.1 $
+ */
+@Singleton
+public class PostConstructBarrier {
+  private static final Logger LOG = Logger.getLogger(PostConstructBarrier.class.getName());
+  private static final AtomicInteger threadCounter = new AtomicInteger(0);
+  private static final Future<?> READY = readyFuture();
+
+  // weak keys are compared by identity
+  private final ConcurrentMap<Object, Future<?>> futures = new MapMaker().weakKeys().makeMap();
+  private ExecutorService executor;
+  private boolean closed;
+
+  /**
+   * Invokes the given method on the injectee in the background, after any methods previously
+   * submitted for the same injectee have completed
+   *
+   * @return the future which completes when the method has been invoked
+   * @throws IllegalStateException if the barrier has been closed
+   */
+  public synchronized Future<?> submit(final Object injectee, final Method method) {
+    if (closed) {
+      throw new IllegalStateException("Cannot invoke " + method
+          + " as the PostConstructBarrier has been closed");
+    }
+    final Future<?> previous = futures.get(injectee);
+    Future<?> future = getExecutor().submit(new Callable<Object>() {
+      public Object call() throws Exception {
+        if (previous != null) {
+          try {
+            previous.get();
+          }
+          catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+          }
+        }
+        try {
+          return method.invoke(injectee);
+        }
+        catch (InvocationTargetException e) {
+          LOG.log(Level.WARNING, "Failed to invoke " + method + " on " + injectee,
+              e.getTargetException());
+          throw rethrow(e.getTargetException());
+        }
+        catch (IllegalAccessException e) {
+          LOG.log(Level.WARNING, "Failed to invoke " + method + " on " + injectee, e);
+          throw e;
+        }
+      }
+    });
+    futures.put(injectee, future);
+    return future;
+  }
+
+  /**
+   * Returns the future which completes when all of the asynchronous post construct methods of the
+   * given component have been invoked. If the component has no such methods a completed future is
+   * returned.
+   */
+  public Future<?> getFuture(Object component) {
+    Future<?> future = futures.get(component);
+    return future != null ? future : READY;
+  }
+
+  /**
+   * Returns true if all of the asynchronous post construct methods of the given component have
+   * completed
+   */
+  public boolean isReady(Object component) {
+    return getFuture(component).isDone();
+  }
+
+  /**
+   * Waits for the asynchronous post construct methods of the given components to complete
+   *
+   * @throws ExecutionException if any of the methods failed
+   */
+  public void await(Object... components) throws InterruptedException, ExecutionException {
+    for (Object component : components) {
+      getFuture(component).get();
+    }
+  }
+
+  /**
+   * Waits for all of the asynchronous post construct methods submitted so far to complete
+   *
+   * @throws ExecutionException if any of the methods failed
+   */
+  public void awaitAll() throws InterruptedException, ExecutionException {
+    for (Future<?> future : getFutures()) {
+      future.get();
+    }
+  }
+
+  /**
+   * Waits up to the given timeout for all of the asynchronous post construct methods submitted so
+   * far to complete
+   *
+   * @throws ExecutionException if any of the methods failed
+   * @throws TimeoutException if the methods did not complete in time
+   */
+  public void awaitAll(long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (Future<?> future : getFutures()) {
+      future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Stops the background threads once any submitted methods have completed; any further methods
+   * are rejected
+   */
+  @PreDestroy
+  public synchronized void close() {
+    closed = true;
+    if (executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  protected synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = createExecutor();
+    }
+    return executor;
+  }
+
+  /**
+   * Creates the executor used to invoke the asynchronous methods, by default a pool of daemon
+   * threads with one thread per processor
+   */
+  protected ExecutorService createExecutor() {
+    return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+        new ThreadFactory() {
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                "GuiceyFruit PostConstruct " + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+  }
+
+  private List<Future<?>> getFutures() {
+    return Lists.newArrayList(futures.values());
+  }
+
+  private static Exception rethrow(Throwable cause) {
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    if (cause instanceof Exception) {
+      return (Exception) cause;
+    }
+    return new ExecutionException(cause);
+  }
+
+  private static Future<?> readyFuture() {
+    FutureTask<Object> future = new FutureTask<Object>(new Runnable() {
+      public void run() {
+      }
+    }, null);
+    future.run();
+    return future;
+  }
+}
@@ -0,0 +1,52 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.jsr250;
+
+import com.google.inject.Inject;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import org.guiceyfruit.support.MethodHandler;
+
+/**
+ * Invokes the {@link javax.annotation.PostConstruct} methods of objects after they have been
+ * injected, passing any methods annotated with {@link AsyncPostConstruct} to the {@link
+ * PostConstructBarrier} to be invoked in the background.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class PostConstructMethodHandler implements MethodHandler {
+  private final PostConstructBarrier barrier;
+
+  @Inject
+  public PostConstructMethodHandler(PostConstructBarrier barrier) {
+    this.barrier = barrier;
+  }
+
+  public void afterInjection(Object injectee, Annotation annotation, Method method)
+      throws InvocationTargetException, IllegalAccessException {
+
+    if (method.isAnnotationPresent(AsyncPostConstruct.class)) {
+      barrier.submit(injectee, method);
+    }
+    else {
+      method.invoke(injectee);
+    }
+  }
+}
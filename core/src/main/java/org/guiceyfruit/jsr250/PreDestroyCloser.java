@@ -16,23 +16,30 @@
 
 package org.guiceyfruit.jsr250;
 
+import com.google.inject.Singleton;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import javax.annotation.PreDestroy;
-import org.guiceyfruit.support.Closer;
+import org.guiceyfruit.support.TypedCloser;
 
 /**
  * Supports the {@link javax.annotation.PreDestroy} annotation lifecycle from JSR250.
  * <p>
- * To install this closer you need to register the {@link Jsr250Module} in your injector.
+ * To install this closer you need to register the {@link Jsr250Module} in your injector. It is a
+ * singleton so that the methods it finds for each type are cached between closes.
  *
  * @author james.strachan@gmail.com (James Strachan)
  * @version $Revision: 1.1 $
  */
-public class PreDestroyCloser implements Closer {
+@Singleton
+public class PreDestroyCloser implements TypedCloser {
 
   private AnnotatedMethodCache methodCache = new AnnotatedMethodCache(PreDestroy.class);
 
+  public boolean canClose(Class<?> type) {
+    return methodCache.getMethod(type) != null;
+  }
+
   public void close(Object object) throws Throwable {
     Class<?> type = object.getClass();
     Method method = methodCache.getMethod(type);
@@ -18,14 +18,25 @@
 
 package org.guiceyfruit.jsr250;
 
+import com.google.inject.Provider;
+import com.google.inject.ProvisionException;
 import com.google.inject.TypeLiteral;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import javax.annotation.Resource;
+import org.guiceyfruit.support.LazyProviders;
 
 /**
- * Injects fields or methods with the results of the {@link Resource} annotation
+ * Injects fields or methods with the results of the {@link Resource} annotation.
+ *
+ * Members whose type is a Guice or JSR 330 provider are injected with a provider which looks up
+ * the resource when it is first called; members whose type is an interface and which are also
+ * annotated with {@link LazyResource} are injected with a proxy which looks up the resource when it
+ * is first used.
  *
  * @version $Revision: 1.1 $
  */
@@ -40,7 +51,31 @@ public class ResourceMemberProvider extends NamedProviderSupport<Resource> {
     protected Object provide(Resource resource, Member member, TypeLiteral<?> requiredType,
                              Class<?> memberType, Annotation[] annotations) {
         String name = getValueName(resource.name(), member);
+        if (LazyProviders.isProviderType(memberType)) {
+            TypeLiteral<?> providedType = getProvidedType(member, requiredType);
+            return LazyProviders.adaptProvider(memberType,
+                    provideLazilyFromNamedBindingOrJndi(providedType, name));
+        }
+        if (memberType.isInterface() && ((AnnotatedElement) member).isAnnotationPresent(
+                LazyResource.class)) {
+            return newProxy(memberType, provideLazilyFromNamedBindingOrJndi(requiredType, name));
+        }
         return provideObjectFromNamedBindingOrJndi(requiredType, name);
     }
 
+    /** Returns the type of the objects provided by a provider member */
+    protected TypeLiteral<?> getProvidedType(Member member, TypeLiteral<?> requiredType) {
+        Type type = requiredType.getType();
+        if (!(type instanceof ParameterizedType)) {
+            throw new ProvisionException("No provided type specified for @Resource provider "
+                    + member);
+        }
+        return TypeLiteral.get(((ParameterizedType) type).getActualTypeArguments()[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newProxy(Class<T> type, Provider<?> provider) {
+        return LazyProviders.newProxy(type, LazyProviders.memoize((Provider<T>) provider));
+    }
+
 }
@@ -0,0 +1,299 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * An index, generated at build time by the GuiceyFruit annotation processor in the
+ * <code>guiceyfruit-apt</code> module, of the classes which have members with each of the
+ * GuiceyFruit annotations either declared on the class or inherited from its superclasses. The
+ * listeners of {@link GuiceyFruitModule} use the index to ignore any type which is not in it with
+ * a single lookup rather than scanning the type via reflection.
+ *
+ * The index files <code>META-INF/guiceyfruit/annotation.index</code> of all of the jars on the
+ * class path are merged. The index is only trusted for the classes loaded from a jar or directory
+ * which contains an index file, so the classes of the jars built without the annotation processor
+ * are still scanned. As the processor cannot see local and anonymous classes they are looked up
+ * by their nearest superclass which is in the index, unless they declare annotated members
+ * themselves. The index can be ignored by setting the <code>org.guiceyfruit.index</code> system
+ * property to <code>false</code>.
+ *
+ * The index files also list the classes for which an {@link InjectionPlan} was generated, so that
+ * {@link InjectionPlans} only loads the plans which exist.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class AnnotationIndex {
+  /** The name of the index files on the class path */
+  public static final String INDEX = "META-INF/guiceyfruit/annotation.index";
+
+  /** The key in the index files of the annotation types which the index was generated for */
+  public static final String ANNOTATIONS_KEY = "@annotations";
+
+  /** The key in the index files of the classes which have a generated {@link InjectionPlan} */
+  public static final String PLANS_KEY = "@plans";
+
+  /** The system property used to disable the index */
+  public static final String ENABLED = "org.guiceyfruit.index";
+
+  private static final Map<ClassLoader, AnnotationIndex> cache = Collections
+      .synchronizedMap(new WeakHashMap<ClassLoader, AnnotationIndex>());
+
+  private final Set<String> annotationTypes = Sets.newHashSet();
+  private final Map<String, Set<String>> classes = Maps.newHashMap();
+  private final Set<String> locations = Sets.newHashSet();
+  private final Set<String> plans = Sets.newHashSet();
+  private boolean listsPlans = true;
+  private final Map<Class<?>, Boolean> indexedTypes = Collections
+      .synchronizedMap(new WeakHashMap<Class<?>, Boolean>());
+  private int files;
+
+  /**
+   * Returns the index of all the index files visible to the given class loader or null if there
+   * are none or the index is disabled
+   */
+  public static AnnotationIndex getIndex(ClassLoader classLoader) {
+    if (classLoader == null || "false".equalsIgnoreCase(System.getProperty(ENABLED))) {
+      return null;
+    }
+    // if we are invoked concurrently it doesn't matter if we load the index twice
+    AnnotationIndex index = cache.get(classLoader);
+    if (index == null && !cache.containsKey(classLoader)) {
+      index = load(classLoader);
+      cache.put(classLoader, index);
+    }
+    return index;
+  }
+
+  private static AnnotationIndex load(ClassLoader classLoader) {
+    AnnotationIndex index = new AnnotationIndex();
+    try {
+      Enumeration<URL> resources = classLoader.getResources(INDEX);
+      if (!resources.hasMoreElements()) {
+        return null;
+      }
+      while (resources.hasMoreElements()) {
+        URL url = resources.nextElement();
+        index.locations.add(getLocation(url, INDEX));
+        InputStream in = url.openStream();
+        try {
+          Properties properties = new Properties();
+          properties.load(in);
+          index.add(properties);
+        }
+        finally {
+          in.close();
+        }
+      }
+    }
+    catch (IOException e) {
+      // if we can't read all of the index we must scan all of the types
+      return null;
+    }
+    return index;
+  }
+
+  /** Adds the classes of an index file to this index */
+  protected void add(Properties properties) {
+    String covered = properties.getProperty(ANNOTATIONS_KEY);
+    Set<String> fileAnnotationTypes = split(covered);
+    if (files++ == 0) {
+      annotationTypes.addAll(fileAnnotationTypes);
+    }
+    else {
+      // the index only covers the annotations which every index file was generated for
+      annotationTypes.retainAll(fileAnnotationTypes);
+    }
+    String planned = properties.getProperty(PLANS_KEY);
+    if (planned == null) {
+      // the file does not tell which classes have a plan so each plan has to be looked for
+      listsPlans = false;
+    }
+    plans.addAll(split(planned));
+    for (Entry<Object, Object> entry : properties.entrySet()) {
+      String className = entry.getKey().toString();
+      if (!className.equals(ANNOTATIONS_KEY) && !className.equals(PLANS_KEY)) {
+        Set<String> annotations = classes.get(className);
+        if (annotations == null) {
+          annotations = Sets.newHashSet();
+          classes.put(className, annotations);
+        }
+        annotations.addAll(split(entry.getValue().toString()));
+      }
+    }
+  }
+
+  /**
+   * Returns the jar or directory which the given resource was loaded from or null if the URL
+   * is not of the given resource
+   */
+  private static String getLocation(URL url, String resource) {
+    String text = url.toExternalForm();
+    return text.endsWith(resource) ? text.substring(0, text.length() - resource.length()) : null;
+  }
+
+  private static Set<String> split(String text) {
+    Set<String> answer = Sets.newHashSet();
+    if (text != null) {
+      for (String name : text.split(",")) {
+        name = name.trim();
+        if (name.length() > 0) {
+          answer.add(name);
+        }
+      }
+    }
+    return answer;
+  }
+
+  /** Returns true if the index lists all of the classes with the given annotation */
+  public boolean covers(Class<? extends Annotation> annotationType) {
+    return annotationTypes.contains(annotationType.getName());
+  }
+
+  /**
+   * Returns the names of the annotation types used on the members of the given type or its
+   * superclasses or null if the type is not in the index
+   */
+  public Set<String> getAnnotations(Class<?> type) {
+    return classes.get(type.getName());
+  }
+
+  /**
+   * Returns the names of the annotation types used on the members of the given type or its
+   * superclasses or null if the index cannot tell, as the type or one of its superclasses was
+   * loaded from a jar or directory without an index file or is a local or anonymous class which
+   * declares annotated members. A type which is not in the index has the annotations of its
+   * nearest superclass which is.
+   */
+  public Set<String> findAnnotations(Class<?> type) {
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      if (!isIndexed(c)) {
+        return null;
+      }
+      Set<String> annotations = classes.get(c.getName());
+      if (annotations != null) {
+        return annotations;
+      }
+    }
+    return Collections.emptySet();
+  }
+
+  /**
+   * Returns true if the given annotation is used on the members of the given type or its
+   * superclasses or it cannot be ruled out, as the index does not cover the annotation or cannot
+   * tell for the type
+   */
+  public boolean hasAnnotation(Class<?> type, Class<? extends Annotation> annotationType) {
+    if (!covers(annotationType)) {
+      return true;
+    }
+    Set<String> annotations = findAnnotations(type);
+    return annotations == null || annotations.contains(annotationType.getName());
+  }
+
+  /** Returns the names of the annotation types which the index lists all of the classes for */
+  Set<String> getAnnotationTypes() {
+    return annotationTypes;
+  }
+
+  /**
+   * Returns true if the annotation processor generated an {@link InjectionPlan} for the given
+   * class or it cannot be ruled out, as the index does not list the plans of its location
+   */
+  public boolean mayHavePlan(Class<?> type) {
+    return !listsPlans || plans.contains(type.getName());
+  }
+
+  /**
+   * Returns true if the given class was compiled by the annotation processor without an {@link
+   * InjectionPlan}, as it does not declare any members with the annotations of the index nor
+   * methods which hide an annotated method of a superclass
+   */
+  public boolean hasNoPlan(Class<?> type) {
+    return listsPlans && !plans.contains(type.getName()) && isIndexedLocation(type)
+        && !isLocalOrAnonymous(type);
+  }
+
+  /**
+   * Returns true if the index can be trusted for the members declared by the given class, which
+   * must have been loaded from a jar or directory containing an index file and not be a local or
+   * anonymous class with annotated members, which the annotation processor does not see
+   */
+  protected boolean isIndexed(Class<?> type) {
+    Boolean answer = indexedTypes.get(type);
+    if (answer == null) {
+      answer = isIndexedLocation(type) && !isUnseenByProcessor(type);
+      indexedTypes.put(type, answer);
+    }
+    return answer;
+  }
+
+  private boolean isIndexedLocation(Class<?> type) {
+    ClassLoader classLoader = type.getClassLoader();
+    if (classLoader == null) {
+      return false;
+    }
+    String resource = type.getName().replace('.', '/') + ".class";
+    URL url = classLoader.getResource(resource);
+    return url != null && locations.contains(getLocation(url, resource));
+  }
+
+  private static boolean isUnseenByProcessor(Class<?> type) {
+    return isLocalOrAnonymous(type) && declaresAnnotatedMembers(type);
+  }
+
+  /** Returns true if the class is or is nested in a local or anonymous class */
+  private static boolean isLocalOrAnonymous(Class<?> type) {
+    for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+      if (c.isLocalClass() || c.isAnonymousClass()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean declaresAnnotatedMembers(Class<?> type) {
+    for (Field field : type.getDeclaredFields()) {
+      if (field.getDeclaredAnnotations().length > 0) {
+        return true;
+      }
+    }
+    for (Method method : type.getDeclaredMethods()) {
+      if (method.getDeclaredAnnotations().length > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -27,6 +27,10 @@ import java.lang.reflect.Method;
  * A provider of an annotation based injection point which can use the value of an annotation
  * together with the member on which the annotation is placed to determine the value.
  *
+ * A provider is obtained from the injector once, when it first injects a member, and is then
+ * shared by all of the injections of that injector so it must be thread safe. If the provider is
+ * bound with an explicit scope the scope decides instead when a new provider is created.
+ *
  * @version $Revision: 1.1 $
  */
 public interface AnnotationMemberProvider<A extends Annotation> {
@@ -0,0 +1,56 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+/**
+ * A single failure to close an object, kept in its raw form so that formatting can be deferred
+ * until the failure is actually reported.
+ *
+ * @version $Revision: 1.1 $
+ */
+public final class CloseError {
+  private final Object key;
+  private final Object object;
+  private final Throwable cause;
+
+  public CloseError(Object key, Object object, Throwable cause) {
+    this.key = key;
+    this.object = object;
+    this.cause = cause;
+  }
+
+  /** Returns the key of the object which failed to close */
+  public Object getKey() {
+    return key;
+  }
+
+  /** Returns the object which failed to close */
+  public Object getObject() {
+    return object;
+  }
+
+  /** Returns the exception or error thrown when attempting to close the object */
+  public Throwable getCause() {
+    return cause;
+  }
+
+  @Override public String toString() {
+    return String.format("Failed to close object %s with key %s", object, key);
+  }
+}
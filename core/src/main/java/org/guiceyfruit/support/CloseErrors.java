@@ -32,9 +32,10 @@ public interface CloseErrors {
    * @param key the key of the object being closed which is usually a {@link com.google.inject.Key}
    * or {@link String}
    * @param object the object being closed
-   * @param cause the exception thrown when the close was attempted
+   * @param cause the exception or error thrown when the close was attempted or a {@link
+   * CloseTimeoutException} if the close did not complete in time
    */
-  void closeError(Object key, Object object, Exception cause);
+  void closeError(Object key, Object object, Throwable cause);
 
   void throwIfNecessary() throws CloseFailedException;
 }
@@ -16,25 +16,131 @@
 
 package org.guiceyfruit.support;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.inject.internal.Errors;
 import com.google.inject.spi.Message;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Indicates that an attempt to close an injector or scope failed closing one or more bindings.
  *
+ * <p>The individual failures are available unformatted via {@link #getCloseErrors()}. The message
+ * is only built when first requested; it summarises the failures by cause type and only describes
+ * the first {@link #MAX_DETAILED_ERRORS} of them in detail.
+ *
+ * <p>The source and the failures refer to the objects which failed to close, which need not be
+ * serializable, so only the formatted message and the cause are serialized.
+ *
  * @author james.strachan@gmail.com (James Strachan)
  */
 public class CloseFailedException extends IOException {
-  private final List<Message> messages;
+  /** The maximum number of failures described individually in the exception message */
+  public static final int MAX_DETAILED_ERRORS = 10;
+
+  private transient Object source;
+  private transient List<CloseError> closeErrors;
+  private transient List<Message> messages;
+  private String message;
 
   public CloseFailedException(List<Message> messages) {
-    super(Errors.format("Close errors", messages));
+    this.source = null;
+    this.closeErrors = Collections.emptyList();
     this.messages = messages;
   }
 
-  public List<Message> getMessages() {
+  public CloseFailedException(Object source, List<CloseError> closeErrors) {
+    this.source = source;
+    this.closeErrors = ImmutableList.copyOf(closeErrors);
+    // IOException only has a constructor taking a cause from Java 6
+    if (!closeErrors.isEmpty() && closeErrors.get(0).getCause() != null) {
+      initCause(closeErrors.get(0).getCause());
+    }
+  }
+
+  /**
+   * Returns the individual failures which caused this exception, which are empty once the
+   * exception has been deserialized
+   */
+  public List<CloseError> getCloseErrors() {
+    return closeErrors != null ? closeErrors : Collections.<CloseError>emptyList();
+  }
+
+  public synchronized List<Message> getMessages() {
+    if (messages == null) {
+      List<CloseError> errors = getCloseErrors();
+      List<Object> sources = source == null
+          ? Collections.<Object>emptyList() : Collections.singletonList(source);
+      List<Message> list = Lists.newArrayListWithCapacity(errors.size());
+      for (CloseError error : errors) {
+        list.add(new Message(sources, error.toString(), error.getCause()));
+      }
+      messages = list;
+    }
     return messages;
   }
+
+  @Override public synchronized String getMessage() {
+    if (message == null) {
+      message = getCloseErrors().isEmpty()
+          ? Errors.format("Close errors", getMessages()) : formatCloseErrors();
+    }
+    return message;
+  }
+
+  private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+    // lets format the message while the failures are still available
+    getMessage();
+    out.defaultWriteObject();
+  }
+
+  private String formatCloseErrors() {
+    Map<String, Integer> counts = Maps.newLinkedHashMap();
+    for (CloseError error : closeErrors) {
+      Throwable cause = error.getCause();
+      String type = cause == null ? "unknown" : cause.getClass().getName();
+      Integer count = counts.get(type);
+      counts.put(type, count == null ? 1 : count + 1);
+    }
+
+    StringBuilder builder = new StringBuilder();
+    builder.append("Close errors: ").append(closeErrors.size()).append(" object(s) failed to close");
+    if (source != null) {
+      builder.append(" in ").append(source);
+    }
+    builder.append(":");
+    for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+      builder.append("\n  ").append(entry.getValue()).append(" x ").append(entry.getKey());
+    }
+
+    int detailed = Math.min(closeErrors.size(), MAX_DETAILED_ERRORS);
+    for (int i = 0; i < detailed; i++) {
+      CloseError error = closeErrors.get(i);
+      builder.append("\n\n").append(i + 1).append(") ").append(describe(error));
+      if (error.getCause() != null) {
+        builder.append("\n  Caused by: ").append(error.getCause());
+      }
+    }
+    if (closeErrors.size() > detailed) {
+      builder.append("\n\n... and ").append(closeErrors.size() - detailed)
+          .append(" more, see getCloseErrors() for the full list");
+    }
+    return builder.toString();
+  }
+
+  private static String describe(CloseError error) {
+    try {
+      return error.toString();
+    } catch (RuntimeException e) {
+      // the object being closed may well be in a broken state
+      Object object = error.getObject();
+      return String.format("Failed to close object of type %s",
+          object == null ? null : object.getClass().getName());
+    }
+  }
 }
@@ -0,0 +1,77 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defines how objects are closed by {@link Closers#close(java.util.Map, java.util.Collection,
+ * CloseErrors, ClosePolicy)}; how long each {@link Closer} may take, how long closing all of the
+ * objects may take and how many objects may be closed concurrently.
+ * <p>
+ * The default policy closes objects one at a time without any timeouts. To use a different policy
+ * when closing an injector bind an instance of this class in the injector.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class ClosePolicy {
+  private long closerTimeout;
+  private long timeout;
+  private int threads = 1;
+
+  /** Returns the maximum time in milliseconds a single {@link Closer} may take on an object */
+  public long getCloserTimeout() {
+    return closerTimeout;
+  }
+
+  /**
+   * Sets the maximum time a single {@link Closer} may take on an object or zero for no limit
+   */
+  public void setCloserTimeout(long closerTimeout, TimeUnit unit) {
+    this.closerTimeout = unit.toMillis(closerTimeout);
+  }
+
+  /** Returns the maximum time in milliseconds that closing all of the objects may take */
+  public long getTimeout() {
+    return timeout;
+  }
+
+  /** Sets the maximum time that closing all of the objects may take or zero for no limit */
+  public void setTimeout(long timeout, TimeUnit unit) {
+    this.timeout = unit.toMillis(timeout);
+  }
+
+  /** Returns the number of objects which may be closed concurrently */
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1 but was " + threads);
+    }
+    this.threads = threads;
+  }
+
+  @Override
+  public String toString() {
+    return "ClosePolicy[closerTimeout: " + closerTimeout + "ms timeout: " + timeout
+        + "ms threads: " + threads + "]";
+  }
+}
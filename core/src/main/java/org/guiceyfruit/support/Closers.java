@@ -18,6 +18,10 @@
 
 package org.guiceyfruit.support;
 
+import java.util.Collection;
+import java.util.Map;
+import org.guiceyfruit.support.internal.CloseRunner;
+
 /**
  * Some helper methods for working with the {@link Closer} interface
  *
@@ -38,12 +42,24 @@ public final class Closers {
       try {
         closer.close(objectToBeClosed);
       }
-      catch (Exception e) {
+      catch (Throwable e) {
         errors.closeError(key, objectToBeClosed, e);
       }
-      catch (Throwable throwable) {
-        throwable.printStackTrace();
-      }
     }
   }
+
+  /**
+   * Closes the given objects with each of the closers using the timeouts and concurrency of the
+   * given policy. Each closer is invoked independently so that one failing or hung closer does not
+   * stop the others; failures and timeouts are reported to the errors handler.
+   *
+   * @param objects the objects to be closed indexed by their Key or String name
+   * @param closers the strategies used to close the objects
+   * @param errors the handler of exceptions if they occur
+   * @param policy the timeouts and concurrency used to close the objects
+   */
+  public static void close(Map<?, ?> objects, Collection<Closer> closers, CloseErrors errors,
+      ClosePolicy policy) {
+    new CloseRunner(closers, errors, policy).close(objects);
+  }
 }
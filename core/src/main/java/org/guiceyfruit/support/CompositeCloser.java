@@ -18,17 +18,27 @@
 
 package org.guiceyfruit.support;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * A Composite implementation of {@link Closer}
+ * A Composite implementation of {@link Closer}.
+ * <p>
+ * Objects are only offered to the closers which handle their type; the list of closers for each
+ * type is calculated once using {@link TypedCloser#canClose(Class)} and then cached.
  *
  * @version $Revision: 1.1 $
  * @author james.strachan@gmail.com (James Strachan)
  */
-public class CompositeCloser implements Closer {
+public class CompositeCloser implements TypedCloser {
   private final Iterable<Closer> closers;
+  private final ConcurrentMap<Class<?>, List<Closer>> dispatchCache =
+      new ConcurrentHashMap<Class<?>, List<Closer>>();
 
   /**
    * Returns a {@link Closer} for the given lists of closer strategies
@@ -49,8 +59,33 @@ public class CompositeCloser implements Closer {
   }
 
   public void close(Object object) throws Throwable {
-    for (Closer closer : closers) {
+    for (Closer closer : getClosers(object.getClass())) {
       closer.close(object);
     }
   }
+
+  public boolean canClose(Class<?> type) {
+    return !getClosers(type).isEmpty();
+  }
+
+  /** Returns the closers which handle objects of the given type */
+  public List<Closer> getClosers(Class<?> type) {
+    List<Closer> answer = dispatchCache.get(type);
+    if (answer == null) {
+      List<Closer> list = Lists.newArrayList();
+      for (Closer closer : closers) {
+        if (canClose(closer, type)) {
+          list.add(closer);
+        }
+      }
+      answer = ImmutableList.copyOf(list);
+      dispatchCache.putIfAbsent(type, answer);
+    }
+    return answer;
+  }
+
+  /** Returns true if the given closer handles objects of the given type */
+  public static boolean canClose(Closer closer, Class<?> type) {
+    return !(closer instanceof TypedCloser) || ((TypedCloser) closer).canClose(type);
+  }
 }
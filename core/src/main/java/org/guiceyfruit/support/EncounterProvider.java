@@ -30,6 +30,14 @@ import com.google.inject.spi.TypeEncounter;
 public abstract class EncounterProvider<T> {
   public abstract Provider<? extends T> get(TypeEncounter<?> encounter);
 
+  /**
+   * Returns the key of the binding the provider comes from or null if it does not come from a
+   * binding
+   */
+  public Key<? extends T> getKey() {
+    return null;
+  }
+
   /**
    * Returns a new encounter provider for the given key
    */
@@ -38,6 +46,10 @@ public abstract class EncounterProvider<T> {
       public Provider<? extends T> get(TypeEncounter<?> encounter) {
         return encounter.getProvider(key);
       }
+
+      @Override public Key<? extends T> getKey() {
+        return key;
+      }
     };
   }
 
@@ -49,6 +61,10 @@ public abstract class EncounterProvider<T> {
       public Provider<? extends T> get(TypeEncounter<?> encounter) {
         return encounter.getProvider(type);
       }
+
+      @Override public Key<? extends T> getKey() {
+        return Key.get(type);
+      }
     };
   }
 
@@ -20,8 +20,10 @@ package org.guiceyfruit.support;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.google.inject.AbstractModule;
+import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.MembersInjector;
 import com.google.inject.Provider;
@@ -41,6 +43,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.guiceyfruit.Configures;
+import org.guiceyfruit.Injectors;
+import org.guiceyfruit.support.InjectionPlans.Members;
+import org.guiceyfruit.support.ListenerStatistics.Listener;
 import org.guiceyfruit.support.internal.MethodKey;
 import static com.google.inject.matcher.Matchers.any;
 import static org.guiceyfruit.support.EncounterProvider.encounterProvider;
@@ -52,6 +57,9 @@ import static org.guiceyfruit.support.EncounterProvider.encounterProvider;
  */
 public abstract class GuiceyFruitModule extends AbstractModule {
 
+  private ListenerStatistics listenerStatistics = ListenerStatistics.getDefault();
+  private AnnotationDispatcher annotationDispatcher;
+
   protected void configure() {
     // lets find all of the configures methods
     List<Method> configureMethods = getConfiguresMethods();
@@ -60,7 +68,10 @@ public abstract class GuiceyFruitModule extends AbstractModule {
       final Class<? extends GuiceyFruitModule> moduleType = getClass();
       TypeLiteral<? extends GuiceyFruitModule> type = TypeLiteral.get(moduleType);
 
-      for (final Method method : configureMethods) {
+      // lets index the configures methods by the type they configure so that a single listener
+      // can invoke all of the methods for a type
+      final Map<Class<?>, List<Method>> configurers = Maps.newHashMap();
+      for (Method method : configureMethods) {
         int size = method.getParameterTypes().length;
         if (size == 0) {
           throw new ProvisionException("No arguments on @Configures method " + method);
@@ -69,19 +80,30 @@ public abstract class GuiceyFruitModule extends AbstractModule {
           throw new ProvisionException(
               "Too many arguments " + size + " on @Configures method " + method);
         }
-        final Class<?> paramType = getParameterType(type, method, 0);
+        Class<?> paramType = getParameterType(type, method, 0);
+        List<Method> chain = configurers.get(paramType);
+        if (chain == null) {
+          chain = Lists.newArrayList();
+          configurers.put(paramType, chain);
+        }
+        method.setAccessible(true);
+        chain.add(method);
+      }
 
-        bindListener(new AbstractMatcher<TypeLiteral<?>>() {
-          public boolean matches(TypeLiteral<?> typeLiteral) {
-            return typeLiteral.getRawType().equals(paramType);
-          }
-        }, new TypeListener() {
-          public <I> void hear(TypeLiteral<I> injectableType, TypeEncounter<I> encounter) {
-            encounter.register(new MembersInjector<I>() {
-              public void injectMembers(I injectee) {
-                // lets invoke the configures method
+      bindListener(new AbstractMatcher<TypeLiteral<?>>() {
+        public boolean matches(TypeLiteral<?> typeLiteral) {
+          return configurers.containsKey(typeLiteral.getRawType());
+        }
+      }, new TypeListener() {
+        public <I> void hear(TypeLiteral<I> injectableType, TypeEncounter<I> encounter) {
+          long start = listenerStatistics.start();
+          final Method[] chain = configurers.get(injectableType.getRawType())
+              .toArray(new Method[0]);
+          encounter.register(new MembersInjector<I>() {
+            public void injectMembers(I injectee) {
+              // lets invoke the configures methods
+              for (Method method : chain) {
                 try {
-                  method.setAccessible(true);
                   method.invoke(moduleInstance, injectee);
                 }
                 catch (IllegalAccessException e) {
@@ -94,22 +116,29 @@ public abstract class GuiceyFruitModule extends AbstractModule {
                       "Failed to invoke @Configures method " + method + ". Reason: " + e, e);
                 }
               }
-            });
-          }
-        });
-      }
+            }
+          });
+          listenerStatistics.record(Listener.CONFIGURES, moduleType, chain.length, start);
+        }
+      });
     }
   }
 
+  public ListenerStatistics getListenerStatistics() {
+    return listenerStatistics;
+  }
+
+  /**
+   * Sets the statistics used to record the startup cost of the listeners this module registers,
+   * which must be called before the module is configured. Defaults to {@link
+   * ListenerStatistics#getDefault()}
+   */
+  public void setListenerStatistics(ListenerStatistics listenerStatistics) {
+    this.listenerStatistics = listenerStatistics;
+  }
+
   private List<Method> getConfiguresMethods() {
-    List<Method> answer = Lists.newArrayList();
-    List<Method> list = Reflectors.getAllMethods(getClass());
-    for (Method method : list) {
-      if (method.getAnnotation(Configures.class) != null) {
-        answer.add(method);
-      }
-    }
-    return answer;
+    return InjectionPlans.getAnnotatedMethods(getClass(), Configures.class);
   }
 
   /**
@@ -145,35 +174,8 @@ public abstract class GuiceyFruitModule extends AbstractModule {
   private <A extends Annotation> void bindMethodHandler(final Class<A> annotationType,
       final EncounterProvider<MethodHandler> encounterProvider) {
 
-    bindListener(any(), new TypeListener() {
-      public <I> void hear(TypeLiteral<I> injectableType, TypeEncounter<I> encounter) {
-        Class<? super I> type = injectableType.getRawType();
-        Method[] methods = type.getDeclaredMethods();
-        for (final Method method : methods) {
-          final A annotation = method.getAnnotation(annotationType);
-          if (annotation != null) {
-            final Provider<? extends MethodHandler> provider = encounterProvider.get(encounter);
-
-            encounter.register(new InjectionListener<I>() {
-              public void afterInjection(I injectee) {
-
-                MethodHandler methodHandler = provider.get();
-                try {
-                  methodHandler.afterInjection(injectee, annotation, method);
-                }
-                catch (InvocationTargetException ie) {
-                  Throwable e = ie.getTargetException();
-                  throw new ProvisionException(e.getMessage(), e);
-                }
-                catch (IllegalAccessException e) {
-                  throw new ProvisionException(e.getMessage(), e);
-                }
-              }
-            });
-          }
-        }
-      }
-    });
+    getAnnotationDispatcher().methodHandlers.add(
+        new MethodHandlerBinding(annotationType, encounterProvider));
   }
 
   /**
@@ -227,119 +229,27 @@ public abstract class GuiceyFruitModule extends AbstractModule {
   private <A extends Annotation> void bindAnnotationInjector(final Class<A> annotationType,
       final EncounterProvider<AnnotationMemberProvider> memberProviderProvider) {
 
-    bindListener(any(), new TypeListener() {
-      Provider<? extends AnnotationMemberProvider> providerProvider;
-
-      public <I> void hear(TypeLiteral<I> injectableType, TypeEncounter<I> encounter) {
-
-        Set<Field> boundFields = Sets.newHashSet();
-        Map<MethodKey, Method> boundMethods = Maps.newHashMap();
-
-        TypeLiteral<?> startType = injectableType;
-        while (true) {
-          Class<?> type = startType.getRawType();
-          if (type == Object.class) {
-            break;
-          }
-
-          Field[] fields = type.getDeclaredFields();
-          for (Field field : fields) {
-            if (boundFields.add(field)) {
-              bindAnnotationInjectorToField(encounter, startType, field);
-            }
-          }
-
-          Method[] methods = type.getDeclaredMethods();
-          for (final Method method : methods) {
-            MethodKey key = new MethodKey(method);
-            if (boundMethods.get(key) == null) {
-              boundMethods.put(key, method);
-              bindAnnotationInjectionToMember(encounter, startType, method);
-            }
-          }
-
-          Class<?> supertype = type.getSuperclass();
-          if (supertype == Object.class) {
-            break;
-          }
-          startType = startType.getSupertype(supertype);
-        }
-      }
-
-      protected <I> void bindAnnotationInjectionToMember(final TypeEncounter<I> encounter,
-          final TypeLiteral<?> type, final Method method) {
-        // TODO lets exclude methods with @Inject?
-        final A annotation = method.getAnnotation(annotationType);
-        if (annotation != null) {
-          if (providerProvider == null) {
-            providerProvider = memberProviderProvider.get(encounter);
-          }
-
-          encounter.register(new MembersInjector<I>() {
-            public void injectMembers(I injectee) {
-              AnnotationMemberProvider provider = providerProvider.get();
-
-              int size = method.getParameterTypes().length;
-              Object[] values = new Object[size];
-              for (int i = 0; i < size; i++) {
-                Class<?> paramType = getParameterType(type, method, i);
-                Object value = provider.provide(annotation, type, method, paramType, i);
-                checkInjectedValueType(value, paramType, encounter);
-
-                // if we have a null value then assume the injection point cannot be satisfied
-                // which is the spring @Autowired way of doing things
-                if (value == null && !provider
-                    .isNullParameterAllowed(annotation, method, paramType, i)) {
-                  return;
-                }
-                values[i] = value;
-              }
-              try {
-                method.setAccessible(true);
-                method.invoke(injectee, values);
-              }
-              catch (IllegalAccessException e) {
-                throw new ProvisionException("Failed to inject method " + method + ". Reason: " + e,
-                    e);
-              }
-              catch (InvocationTargetException ie) {
-                Throwable e = ie.getTargetException();
-                throw new ProvisionException("Failed to inject method " + method + ". Reason: " + e,
-                    e);
-              }
-            }
-          });
-        }
-      }
-
-      protected <I> void bindAnnotationInjectorToField(final TypeEncounter<I> encounter,
-          final TypeLiteral<?> type, final Field field) {
-        // TODO lets exclude fields with @Inject?
-        final A annotation = field.getAnnotation(annotationType);
-        if (annotation != null) {
-          if (providerProvider == null) {
-            providerProvider = memberProviderProvider.get(encounter);
-          }
-
-          encounter.register(new InjectionListener<I>() {
-            public void afterInjection(I injectee) {
-              AnnotationMemberProvider provider = providerProvider.get();
-              Object value = provider.provide(annotation, type, field);
-              checkInjectedValueType(value, field.getType(), encounter);
+    getAnnotationDispatcher().annotationInjectors.add(
+        new AnnotationInjectorBinding(annotationType, memberProviderProvider));
+  }
 
-              try {
-                field.setAccessible(true);
-                field.set(injectee, value);
-              }
-              catch (IllegalAccessException e) {
-                throw new ProvisionException("Failed to inject field " + field + ". Reason: " + e,
-                    e);
-              }
-            }
-          });
+  /**
+   * Returns the dispatcher for the binder currently being configured, binding it as a listener the
+   * first time it is used so that each type is only reflected on once for all of the method
+   * handlers and annotation injectors of this module. If there is an {@link AnnotationIndex}
+   * visible to the class loader of a type the type is only dispatched if the index lists it.
+   */
+  private AnnotationDispatcher getAnnotationDispatcher() {
+    if (annotationDispatcher == null || annotationDispatcher.binder != binder()) {
+      annotationDispatcher = new AnnotationDispatcher(binder());
+      final AnnotationDispatcher dispatcher = annotationDispatcher;
+      bindListener(new AbstractMatcher<TypeLiteral<?>>() {
+        public boolean matches(TypeLiteral<?> typeLiteral) {
+          return dispatcher.isIndexed(typeLiteral.getRawType());
         }
-      }
-    });
+      }, annotationDispatcher);
+    }
+    return annotationDispatcher;
   }
 
   protected Class<?> getParameterType(TypeLiteral<?> type, Method method, int i) {
@@ -428,4 +338,388 @@ public abstract class GuiceyFruitModule extends AbstractModule {
     Class<T> aClass = (Class<T>) instance.getClass();
     bind(aClass, name).toInstance(instance);
   }
-}
\ No newline at end of file
+
+  /** A method handler bound to the annotation on the methods it handles */
+  private static class MethodHandlerBinding {
+    private final Class<? extends Annotation> annotationType;
+    private final EncounterProvider<MethodHandler> encounterProvider;
+
+    MethodHandlerBinding(Class<? extends Annotation> annotationType,
+        EncounterProvider<MethodHandler> encounterProvider) {
+      this.annotationType = annotationType;
+      this.encounterProvider = encounterProvider;
+    }
+  }
+
+  /** An annotation member provider bound to the annotation on the members it injects */
+  private static class AnnotationInjectorBinding {
+    private final Class<? extends Annotation> annotationType;
+    private final EncounterProvider<AnnotationMemberProvider> memberProviderProvider;
+    private Provider<? extends AnnotationMemberProvider> providerProvider;
+
+    AnnotationInjectorBinding(Class<? extends Annotation> annotationType,
+        EncounterProvider<AnnotationMemberProvider> memberProviderProvider) {
+      this.annotationType = annotationType;
+      this.memberProviderProvider = memberProviderProvider;
+    }
+
+    /**
+     * Returns the provider of the annotation member provider. Unless the member provider is bound
+     * with an explicit scope, which is then respected, it is only resolved from the injector once
+     * on first use and then shared by all of the members of all types it injects.
+     */
+    synchronized Provider<? extends AnnotationMemberProvider> getProvider(
+        TypeEncounter<?> encounter) {
+      if (providerProvider == null) {
+        Provider<? extends AnnotationMemberProvider> provider
+            = memberProviderProvider.get(encounter);
+        Key<? extends AnnotationMemberProvider> key = memberProviderProvider.getKey();
+        providerProvider = key == null ? provider
+            : memoizeUnlessScoped(encounter.getProvider(Injector.class), key, provider);
+      }
+      return providerProvider;
+    }
+
+    private static Provider<AnnotationMemberProvider> memoizeUnlessScoped(
+        final Provider<Injector> injectorProvider, final Key<?> key,
+        final Provider<? extends AnnotationMemberProvider> provider) {
+      return new Provider<AnnotationMemberProvider>() {
+        private Provider<? extends AnnotationMemberProvider> delegate;
+
+        // the binding can only be looked up once the injector has been created
+        public synchronized AnnotationMemberProvider get() {
+          if (delegate == null) {
+            Binding<?> binding = injectorProvider.get().getBinding(key);
+            delegate = Injectors.isScoped(binding) ? provider : LazyProviders.memoize(provider);
+          }
+          return delegate.get();
+        }
+
+        @Override public String toString() {
+          return provider.toString();
+        }
+      };
+    }
+  }
+
+  /**
+   * A single listener for all of the method handlers and annotation injectors of a module which
+   * reflects on each type once, routes its annotated members to the bindings for their
+   * annotations and registers one members injector for the annotated methods and one injection
+   * listener for the annotated fields and handled methods of the type
+   */
+  private class AnnotationDispatcher implements TypeListener {
+    private final Binder binder;
+    private final List<MethodHandlerBinding> methodHandlers = Lists.newArrayList();
+    private final List<AnnotationInjectorBinding> annotationInjectors = Lists.newArrayList();
+
+    AnnotationDispatcher(Binder binder) {
+      this.binder = binder;
+    }
+
+    public <I> void hear(TypeLiteral<I> injectableType, final TypeEncounter<I> encounter) {
+      long start = listenerStatistics.start();
+      int[] injectorCounts = new int[annotationInjectors.size()];
+      int[] handlerCounts = new int[methodHandlers.size()];
+
+      final List<Injection> methodInjections = Lists.newArrayList();
+      final List<Injection> fieldInjections = Lists.newArrayList();
+      final List<Injection> handledMethods = Lists.newArrayList();
+
+      // method handlers are only invoked for the methods declared on the type itself
+      if (!methodHandlers.isEmpty()) {
+        Class<?> rawType = injectableType.getRawType();
+        Members plan = getPlan(rawType);
+        Method[] methods = plan != null ? plan.getMethods() : rawType.getDeclaredMethods();
+        for (Method method : methods) {
+          if (method.getDeclaredAnnotations().length == 0) {
+            continue;
+          }
+          for (int i = 0; i < handlerCounts.length; i++) {
+            MethodHandlerBinding binding = methodHandlers.get(i);
+            Annotation annotation = method.getAnnotation(binding.annotationType);
+            if (annotation != null) {
+              handlerCounts[i]++;
+              handledMethods.add(new HandledMethod(binding.encounterProvider.get(encounter),
+                  annotation, method));
+            }
+          }
+        }
+      }
+
+      if (!annotationInjectors.isEmpty()) {
+        Map<MethodKey, Method> boundMethods = Maps.newHashMap();
+
+        TypeLiteral<?> startType = injectableType;
+        while (true) {
+          Class<?> type = startType.getRawType();
+          if (type == Object.class) {
+            break;
+          }
+
+          // lets use the plan generated at compile time for the type if there is one
+          Members plan = getPlan(type);
+          Field[] fields;
+          Method[] methods;
+          if (plan != null) {
+            for (Method method : plan.getOverridingMethods()) {
+              MethodKey key = new MethodKey(method);
+              if (boundMethods.get(key) == null) {
+                boundMethods.put(key, method);
+              }
+            }
+            fields = plan.getFields();
+            methods = plan.getMethods();
+          }
+          else {
+            fields = type.getDeclaredFields();
+            methods = type.getDeclaredMethods();
+          }
+
+          for (Field field : fields) {
+            if (field.getDeclaredAnnotations().length == 0) {
+              continue;
+            }
+            for (int i = 0; i < injectorCounts.length; i++) {
+              AnnotationInjectorBinding binding = annotationInjectors.get(i);
+              Annotation annotation = field.getAnnotation(binding.annotationType);
+              if (annotation != null) {
+                injectorCounts[i]++;
+                fieldInjections.add(new FieldInjection(binding.getProvider(encounter), annotation,
+                    startType, field, encounter));
+              }
+            }
+          }
+
+          for (Method method : methods) {
+            // methods overridden by a subclass are only injected via the subclass
+            MethodKey key = new MethodKey(method);
+            if (boundMethods.get(key) != null) {
+              continue;
+            }
+            boundMethods.put(key, method);
+            if (method.getDeclaredAnnotations().length == 0) {
+              continue;
+            }
+            // TODO lets exclude methods with @Inject?
+            for (int i = 0; i < injectorCounts.length; i++) {
+              AnnotationInjectorBinding binding = annotationInjectors.get(i);
+              Annotation annotation = method.getAnnotation(binding.annotationType);
+              if (annotation != null) {
+                injectorCounts[i]++;
+                methodInjections.add(new MethodInjection(binding.getProvider(encounter),
+                    annotation, startType, method, encounter));
+              }
+            }
+          }
+
+          Class<?> supertype = type.getSuperclass();
+          if (supertype == Object.class) {
+            break;
+          }
+          startType = startType.getSupertype(supertype);
+        }
+      }
+
+      int registered = methodInjections.size() + fieldInjections.size() + handledMethods.size();
+      if (!methodInjections.isEmpty()) {
+        encounter.register(new MembersInjector<I>() {
+          public void injectMembers(I injectee) {
+            for (Injection injection : methodInjections) {
+              injection.inject(injectee);
+            }
+          }
+        });
+      }
+      if (!fieldInjections.isEmpty() || !handledMethods.isEmpty()) {
+        // lets inject all of the fields before invoking any handlers such as @PostConstruct
+        fieldInjections.addAll(handledMethods);
+        encounter.register(new InjectionListener<I>() {
+          public void afterInjection(I injectee) {
+            for (Injection injection : fieldInjections) {
+              injection.inject(injectee);
+            }
+          }
+        });
+      }
+
+      if (listenerStatistics.isEnabled()) {
+        for (int i = 0; i < injectorCounts.length; i++) {
+          listenerStatistics.count(Listener.ANNOTATION_INJECTOR,
+              annotationInjectors.get(i).annotationType, injectorCounts[i]);
+        }
+        for (int i = 0; i < handlerCounts.length; i++) {
+          listenerStatistics.count(Listener.METHOD_HANDLER, methodHandlers.get(i).annotationType,
+              handlerCounts[i]);
+        }
+        listenerStatistics.record(Listener.ANNOTATION_DISPATCHER,
+            GuiceyFruitModule.this.getClass(), registered, start);
+      }
+    }
+
+    /**
+     * Returns true if the given type or its superclasses may have members with the annotations of
+     * any of the method handlers or annotation injectors according to the index visible to the
+     * class loader of the type
+     */
+    boolean isIndexed(Class<?> type) {
+      AnnotationIndex index = AnnotationIndex.getIndex(type.getClassLoader());
+      if (index == null) {
+        return true;
+      }
+      Set<String> annotations = index.findAnnotations(type);
+      if (annotations == null) {
+        return true;
+      }
+      for (MethodHandlerBinding binding : methodHandlers) {
+        if (!index.covers(binding.annotationType)
+            || annotations.contains(binding.annotationType.getName())) {
+          return true;
+        }
+      }
+      for (AnnotationInjectorBinding binding : annotationInjectors) {
+        if (!index.covers(binding.annotationType)
+            || annotations.contains(binding.annotationType.getName())) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Returns the plan generated at compile time for the given type if it lists the members with
+     * the annotations of all of the method handlers and annotation injectors or null if the type
+     * must be scanned via reflection
+     */
+    private Members getPlan(Class<?> type) {
+      Members plan = InjectionPlans.getMembers(type);
+      if (plan == null) {
+        return null;
+      }
+      for (MethodHandlerBinding binding : methodHandlers) {
+        if (!plan.covers(binding.annotationType)) {
+          return null;
+        }
+      }
+      for (AnnotationInjectorBinding binding : annotationInjectors) {
+        if (!plan.covers(binding.annotationType)) {
+          return null;
+        }
+      }
+      return plan;
+    }
+  }
+
+  /** The injection or handling of one annotated member of a type */
+  private interface Injection {
+    void inject(Object injectee);
+  }
+
+  private class MethodInjection implements Injection {
+    private final Provider<? extends AnnotationMemberProvider> providerProvider;
+    private final Annotation annotation;
+    private final TypeLiteral<?> type;
+    private final Method method;
+    private final TypeEncounter<?> encounter;
+
+    MethodInjection(Provider<? extends AnnotationMemberProvider> providerProvider,
+        Annotation annotation, TypeLiteral<?> type, Method method, TypeEncounter<?> encounter) {
+      this.providerProvider = providerProvider;
+      this.annotation = annotation;
+      this.type = type;
+      this.method = method;
+      this.encounter = encounter;
+      method.setAccessible(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void inject(Object injectee) {
+      AnnotationMemberProvider provider = providerProvider.get();
+
+      int size = method.getParameterTypes().length;
+      Object[] values = new Object[size];
+      for (int i = 0; i < size; i++) {
+        Class<?> paramType = getParameterType(type, method, i);
+        Object value = provider.provide(annotation, type, method, paramType, i);
+        checkInjectedValueType(value, paramType, encounter);
+
+        // if we have a null value then assume the injection point cannot be satisfied
+        // which is the spring @Autowired way of doing things
+        if (value == null && !provider.isNullParameterAllowed(annotation, method, paramType, i)) {
+          return;
+        }
+        values[i] = value;
+      }
+      try {
+        method.invoke(injectee, values);
+      }
+      catch (IllegalAccessException e) {
+        throw new ProvisionException("Failed to inject method " + method + ". Reason: " + e, e);
+      }
+      catch (InvocationTargetException ie) {
+        Throwable e = ie.getTargetException();
+        throw new ProvisionException("Failed to inject method " + method + ". Reason: " + e, e);
+      }
+    }
+  }
+
+  private class FieldInjection implements Injection {
+    private final Provider<? extends AnnotationMemberProvider> providerProvider;
+    private final Annotation annotation;
+    private final TypeLiteral<?> type;
+    private final Field field;
+    private final TypeEncounter<?> encounter;
+
+    FieldInjection(Provider<? extends AnnotationMemberProvider> providerProvider,
+        Annotation annotation, TypeLiteral<?> type, Field field, TypeEncounter<?> encounter) {
+      this.providerProvider = providerProvider;
+      this.annotation = annotation;
+      this.type = type;
+      this.field = field;
+      this.encounter = encounter;
+      field.setAccessible(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void inject(Object injectee) {
+      AnnotationMemberProvider provider = providerProvider.get();
+      Object value = provider.provide(annotation, type, field);
+      checkInjectedValueType(value, field.getType(), encounter);
+
+      try {
+        field.set(injectee, value);
+      }
+      catch (IllegalAccessException e) {
+        throw new ProvisionException("Failed to inject field " + field + ". Reason: " + e, e);
+      }
+    }
+  }
+
+  private static class HandledMethod implements Injection {
+    private final Provider<? extends MethodHandler> provider;
+    private final Annotation annotation;
+    private final Method method;
+
+    HandledMethod(Provider<? extends MethodHandler> provider, Annotation annotation,
+        Method method) {
+      this.provider = provider;
+      this.annotation = annotation;
+      this.method = method;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void inject(Object injectee) {
+      MethodHandler methodHandler = provider.get();
+      try {
+        methodHandler.afterInjection(injectee, annotation, method);
+      }
+      catch (InvocationTargetException ie) {
+        Throwable e = ie.getTargetException();
+        throw new ProvisionException(e.getMessage(), e);
+      }
+      catch (IllegalAccessException e) {
+        throw new ProvisionException(e.getMessage(), e);
+      }
+    }
+  }
+}
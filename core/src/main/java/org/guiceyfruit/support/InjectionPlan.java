@@ -0,0 +1,52 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+/**
+ * The base class of the injection plans generated at compile time by the GuiceyFruit annotation
+ * processor in the <code>guiceyfruit-apt</code> module. A plan lists the members declared on a
+ * class which have any of the GuiceyFruit annotations so that they can be found without scanning
+ * every field and method of the class via reflection.
+ *
+ * The plan for a class is named after the binary name of the class with the {@link #SUFFIX} and
+ * is looked up and resolved via {@link InjectionPlans}. Members are described by name only, with
+ * methods described as <code>name(parameterType,...)</code> using the {@link Class#getName()}
+ * of each parameter type, so that a plan never needs access to the class it describes.
+ *
+ * @version $Revision: 1.1 $
+ */
+public abstract class InjectionPlan {
+  /** The suffix added to the name of a class to find its generated plan */
+  public static final String SUFFIX = "$$InjectionPlan";
+
+  /** Returns the names of the annotation types which the plan was generated for */
+  public abstract String[] getAnnotationTypes();
+
+  /** Returns the names of the declared fields which have any of the annotation types */
+  public abstract String[] getAnnotatedFields();
+
+  /** Returns the declared methods which have any of the annotation types */
+  public abstract String[] getAnnotatedMethods();
+
+  /**
+   * Returns the declared methods without any of the annotation types which have the same name and
+   * parameter types as an annotated method of a superclass, so hide it from injection
+   */
+  public abstract String[] getOverridingMethods();
+}
@@ -0,0 +1,243 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.guiceyfruit.support.internal.MethodKey;
+
+/**
+ * Looks up and caches the {@link InjectionPlan} generated at compile time for a class, resolving
+ * its members so that the annotated members of a class can be found without scanning all of its
+ * fields and methods. Classes without a plan, or whose plan is out of date, fall back to
+ * reflection.
+ *
+ * Only the classes which the {@link AnnotationIndex} lists as having a plan are looked up, so the
+ * classes compiled without annotated members are neither looked up nor scanned and the classes of
+ * jars built without the annotation processor are scanned straight away. The resolved members
+ * refer to their class, so they are held softly to let the class loader be garbage collected.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class InjectionPlans {
+  private static final Members NONE = new Members(new String[0], new Field[0], new Method[0],
+      new Method[0]);
+  private static final Reference<Members> NO_PLAN = new SoftReference<Members>(NONE);
+  private static final Map<Class<?>, Reference<Members>> cache = Collections
+      .synchronizedMap(new WeakHashMap<Class<?>, Reference<Members>>());
+
+  private static final Map<String, Class<?>> primitives = Maps.newHashMap();
+
+  static {
+    Class<?>[] types = {boolean.class, byte.class, char.class, short.class, int.class, long.class,
+        float.class, double.class};
+    for (Class<?> type : types) {
+      primitives.put(type.getName(), type);
+    }
+  }
+
+  /**
+   * Returns the resolved plan of the members declared on the given type or null if there is no
+   * generated plan for the type
+   */
+  public static Members getMembers(Class<?> type) {
+    // if we are invoked concurrently it doesn't matter if we resolve the plan twice
+    Reference<Members> reference = cache.get(type);
+    Members members = reference != null ? reference.get() : null;
+    if (members == null) {
+      members = resolve(type);
+      cache.put(type, members == NONE ? NO_PLAN : new SoftReference<Members>(members));
+    }
+    return members == NONE ? null : members;
+  }
+
+  /**
+   * Returns the declared methods of the given type which could have the given annotation; the
+   * annotated methods of the plan if it covers the annotation, otherwise all declared methods
+   */
+  public static Method[] getDeclaredMethods(Class<?> type,
+      Class<? extends Annotation> annotationType) {
+    Members members = getMembers(type);
+    if (members != null && members.covers(annotationType)) {
+      return members.getMethods();
+    }
+    return type.getDeclaredMethods();
+  }
+
+  /**
+   * Returns all of the methods of the given type and its superclasses which have the given
+   * annotation, ignoring methods overridden by a subclass
+   */
+  public static List<Method> getAnnotatedMethods(Class<?> type,
+      Class<? extends Annotation> annotationType) {
+    List<Method> answer = Lists.newArrayList();
+    Set<MethodKey> boundMethods = Sets.newHashSet();
+    for (; type != null && type != Object.class; type = type.getSuperclass()) {
+      Members members = getMembers(type);
+      Method[] methods;
+      if (members != null && members.covers(annotationType)) {
+        for (Method method : members.getOverridingMethods()) {
+          boundMethods.add(new MethodKey(method));
+        }
+        methods = members.getMethods();
+      }
+      else {
+        methods = type.getDeclaredMethods();
+      }
+      for (Method method : methods) {
+        if (boundMethods.add(new MethodKey(method))
+            && method.getAnnotation(annotationType) != null) {
+          answer.add(method);
+        }
+      }
+    }
+    return answer;
+  }
+
+  private static Members resolve(Class<?> type) {
+    ClassLoader classLoader = type.getClassLoader();
+    if (classLoader == null || type.isInterface() || type.isArray() || type.isPrimitive()) {
+      return NONE;
+    }
+    AnnotationIndex index = AnnotationIndex.getIndex(classLoader);
+    if (index == null) {
+      return NONE;
+    }
+    if (index.hasNoPlan(type)) {
+      Set<String> annotationTypes = index.getAnnotationTypes();
+      return new Members(annotationTypes.toArray(new String[annotationTypes.size()]), new Field[0],
+          new Method[0], new Method[0]);
+    }
+    if (!index.mayHavePlan(type)) {
+      return NONE;
+    }
+    InjectionPlan plan;
+    try {
+      Class<?> planType = Class.forName(type.getName() + InjectionPlan.SUFFIX, true, classLoader);
+      if (!InjectionPlan.class.isAssignableFrom(planType)) {
+        return NONE;
+      }
+      plan = (InjectionPlan) planType.newInstance();
+    }
+    catch (ClassNotFoundException e) {
+      return NONE;
+    }
+    catch (LinkageError e) {
+      return NONE;
+    }
+    catch (InstantiationException e) {
+      return NONE;
+    }
+    catch (IllegalAccessException e) {
+      return NONE;
+    }
+
+    // if the plan is out of date with the class lets use reflection instead
+    try {
+      String[] fieldNames = plan.getAnnotatedFields();
+      Field[] fields = new Field[fieldNames.length];
+      for (int i = 0; i < fields.length; i++) {
+        fields[i] = type.getDeclaredField(fieldNames[i]);
+      }
+      return new Members(plan.getAnnotationTypes(), fields,
+          resolveMethods(type, plan.getAnnotatedMethods()),
+          resolveMethods(type, plan.getOverridingMethods()));
+    }
+    catch (NoSuchFieldException e) {
+      return NONE;
+    }
+    catch (NoSuchMethodException e) {
+      return NONE;
+    }
+    catch (ClassNotFoundException e) {
+      return NONE;
+    }
+  }
+
+  private static Method[] resolveMethods(Class<?> type, String[] descriptors)
+      throws NoSuchMethodException, ClassNotFoundException {
+    Method[] answer = new Method[descriptors.length];
+    for (int i = 0; i < answer.length; i++) {
+      String descriptor = descriptors[i];
+      int open = descriptor.indexOf('(');
+      String name = descriptor.substring(0, open);
+      String parameters = descriptor.substring(open + 1, descriptor.length() - 1);
+      List<Class<?>> parameterTypes = Lists.newArrayList();
+      if (parameters.length() > 0) {
+        for (String parameter : parameters.split(",")) {
+          Class<?> parameterType = primitives.get(parameter);
+          if (parameterType == null) {
+            parameterType = Class.forName(parameter, false, type.getClassLoader());
+          }
+          parameterTypes.add(parameterType);
+        }
+      }
+      answer[i] = type.getDeclaredMethod(name,
+          parameterTypes.toArray(new Class<?>[parameterTypes.size()]));
+    }
+    return answer;
+  }
+
+  /** The members of a class resolved from its generated {@link InjectionPlan} */
+  public static class Members {
+    private final Set<String> annotationTypes;
+    private final Field[] fields;
+    private final Method[] methods;
+    private final Method[] overridingMethods;
+
+    Members(String[] annotationTypes, Field[] fields, Method[] methods,
+        Method[] overridingMethods) {
+      this.annotationTypes = Sets.newHashSet(annotationTypes);
+      this.fields = fields;
+      this.methods = methods;
+      this.overridingMethods = overridingMethods;
+    }
+
+    /** Returns true if the plan lists all of the members with the given annotation */
+    public boolean covers(Class<? extends Annotation> annotationType) {
+      return annotationTypes.contains(annotationType.getName());
+    }
+
+    /** Returns the declared fields with any of the annotations of the plan */
+    public Field[] getFields() {
+      return fields;
+    }
+
+    /** Returns the declared methods with any of the annotations of the plan */
+    public Method[] getMethods() {
+      return methods;
+    }
+
+    /** Returns the declared methods which hide an annotated method of a superclass */
+    public Method[] getOverridingMethods() {
+      return overridingMethods;
+    }
+  }
+}
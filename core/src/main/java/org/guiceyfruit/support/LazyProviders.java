@@ -0,0 +1,154 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Provider;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+/**
+ * Helper methods for deferring the creation of objects until they are first used
+ *
+ * @version $Revision: 1.1 $
+ */
+public class LazyProviders {
+  /**
+   * The name of the JSR 330 provider interface which is supported without needing it on the
+   * class path
+   */
+  public static final String JSR330_PROVIDER = "javax.inject.Provider";
+
+  /**
+   * Returns a provider which only calls the given provider the first time it is used and returns
+   * the same object from then on
+   */
+  public static <T> Provider<T> memoize(final Provider<T> provider) {
+    Preconditions.checkNotNull(provider, "provider");
+    return new Provider<T>() {
+      private volatile boolean created;
+      private T value;
+
+      public T get() {
+        if (!created) {
+          synchronized (this) {
+            if (!created) {
+              value = provider.get();
+              created = true;
+            }
+          }
+        }
+        return value;
+      }
+
+      @Override public String toString() {
+        return "Memoized " + provider;
+      }
+    };
+  }
+
+  /**
+   * Returns a proxy of the given interface which calls the provider to find the object to invoke
+   * each time a method is called. Typically the provider is {@link #memoize(Provider) memoized}
+   * so the object is only created on first use. The <code>equals</code>, <code>hashCode</code> and
+   * <code>toString</code> methods are implemented by the proxy itself, using its identity, so that
+   * logging or comparing the proxy does not create the object.
+   */
+  public static <T> T newProxy(final Class<T> type, final Provider<? extends T> provider) {
+    Preconditions.checkArgument(type.isInterface(), "%s is not an interface", type.getName());
+    Object proxy = Proxy.newProxyInstance(getClassLoader(type), new Class<?>[] { type },
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // lets not create the object just to log or compare the proxy
+            if (method.getDeclaringClass() == Object.class) {
+              if (method.getName().equals("equals")) {
+                return proxy == args[0];
+              }
+              if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+              }
+              if (method.getName().equals("toString")) {
+                return "LazyProxy[" + type.getName() + "]@"
+                    + Integer.toHexString(System.identityHashCode(proxy));
+              }
+            }
+            return invokeOn(provider.get(), method, args);
+          }
+        });
+    return type.cast(proxy);
+  }
+
+  /**
+   * Returns true if the given type is a provider interface; either a Guice {@link Provider} or a
+   * JSR 330 <code>javax.inject.Provider</code>
+   */
+  public static boolean isProviderType(Class<?> type) {
+    return type == Provider.class || type.getName().equals(JSR330_PROVIDER);
+  }
+
+  /**
+   * Adapts the given provider to the given provider interface, such as the JSR 330
+   * <code>javax.inject.Provider</code>, which has a single no argument <code>get()</code> method.
+   * The JSR 330 API is only used reflectively so it does not have to be on the class path.
+   */
+  public static Object adaptProvider(Class<?> providerType, final Provider<?> provider) {
+    if (providerType.isInstance(provider)) {
+      return provider;
+    }
+    Preconditions.checkArgument(providerType.isInterface(), "%s is not an interface",
+        providerType.getName());
+    return Proxy.newProxyInstance(getClassLoader(providerType), new Class<?>[] { providerType },
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("get") && method.getParameterTypes().length == 0) {
+              return provider.get();
+            }
+            if (method.getDeclaringClass() == Object.class) {
+              if (method.getName().equals("equals")) {
+                return proxy == args[0];
+              }
+              if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+              }
+            }
+            return invokeOn(provider, method, args);
+          }
+        });
+  }
+
+  private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+        method.setAccessible(true);
+      }
+      return method.invoke(target, args);
+    }
+    catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static ClassLoader getClassLoader(Class<?> type) {
+    ClassLoader classLoader = type.getClassLoader();
+    return classLoader != null ? classLoader : LazyProviders.class.getClassLoader();
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the startup cost of the type listeners registered by {@link GuiceyFruitModule} for
+ * {@link GuiceyFruitModule#bindAnnotationInjector}, {@link GuiceyFruitModule#bindMethodHandler}
+ * and {@link org.guiceyfruit.Configures} methods; for each listener and annotation the number of
+ * types heard, the number of members registered and the time spent hearing the types. The
+ * annotation injectors and method handlers of a module share a single listener so their time is
+ * recorded against that listener and their own statistics only count the types and members.
+ *
+ * Recording is disabled unless the <code>org.guiceyfruit.listener.statistics</code> system
+ * property is set to <code>true</code> or an enabled instance is passed to {@link
+ * GuiceyFruitModule#setListenerStatistics(ListenerStatistics)}.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class ListenerStatistics
+    extends TimingsSupport<ListenerStatistics.Listener, ListenerStatistics.Statistic> {
+  /** The system property used to enable recording of the statistics */
+  public static final String STATISTICS = "org.guiceyfruit.listener.statistics";
+
+  /** The kinds of listener registered by {@link GuiceyFruitModule} */
+  public enum Listener {
+    ANNOTATION_INJECTOR, METHOD_HANDLER, ANNOTATION_DISPATCHER, CONFIGURES
+  }
+
+  private static final ListenerStatistics DEFAULT = new ListenerStatistics();
+
+  public ListenerStatistics() {
+    this(Boolean.getBoolean(STATISTICS));
+  }
+
+  public ListenerStatistics(boolean enabled) {
+    super(enabled);
+  }
+
+  /**
+   * Returns the statistics shared by all modules which have not been given their own, which are
+   * only recorded if the <code>org.guiceyfruit.listener.statistics</code> system property is
+   * enabled
+   */
+  public static ListenerStatistics getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Records a type heard by a listener
+   *
+   * @param listener the kind of listener which heard the type
+   * @param subject the annotation type the listener is registered for or the module declaring
+   * the @Configures methods
+   * @param registered the number of members registered on the encounter for the type
+   * @param start the value returned from {@link #start()}
+   */
+  public void record(Listener listener, Object subject, int registered, long start) {
+    if (!isEnabled()) {
+      return;
+    }
+    getOrCreateEntry(listener, subject).add(registered, System.nanoTime() - start);
+  }
+
+  /**
+   * Records a type heard by a listener whose time is recorded as part of another listener, such as
+   * the annotation injectors and method handlers dispatched by a single listener
+   *
+   * @param listener the kind of listener which heard the type
+   * @param subject the annotation type the listener is registered for
+   * @param registered the number of members registered on the encounter for the type
+   */
+  public void count(Listener listener, Object subject, int registered) {
+    if (!isEnabled()) {
+      return;
+    }
+    getOrCreateEntry(listener, subject).count(registered);
+  }
+
+  /** Returns the recorded statistics, the slowest first */
+  public List<Statistic> getStatistics() {
+    return getEntries();
+  }
+
+  /**
+   * Returns the statistic for the listener of the given kind and annotation type or module or null
+   * if it has not heard any types
+   */
+  public Statistic getStatistic(Listener listener, Object subject) {
+    return getEntry(listener, subject);
+  }
+
+  @Override protected Statistic createEntry(Listener listener, String subject) {
+    return new Statistic(listener, subject);
+  }
+
+  /**
+   * Returns a report of the recorded statistics, the slowest first; the listeners which are only
+   * counted show no time as their time is included in the time of the listener which dispatched
+   * them
+   */
+  public String report() {
+    long total = 0;
+    boolean counted = false;
+    List<Statistic> list = getStatistics();
+    for (Statistic statistic : list) {
+      total += statistic.getTotalNanos();
+      counted |= !statistic.isTimed();
+    }
+    StringBuilder builder = new StringBuilder(
+        String.format("GuiceyFruit listener statistics: %.1f ms total%n", total / 1e6));
+    builder.append(String.format("  %10s %8s %8s  %s%n", "ms", "types", "members", "listener"));
+    for (Statistic statistic : list) {
+      String millis = statistic.isTimed()
+          ? String.format("%.1f", statistic.getTotalNanos() / 1e6) : "-";
+      builder.append(String.format("  %10s %8d %8d  %s %s%n", millis,
+          statistic.getTypesHeard(), statistic.getMembersRegistered(), statistic.getListener(),
+          statistic.getSubject()));
+    }
+    if (counted) {
+      builder.append(String.format("  (- the time is included in the %s time)%n",
+          Listener.ANNOTATION_DISPATCHER));
+    }
+    return builder.toString();
+  }
+
+  /** The accumulated cost of one listener for one annotation type or module */
+  public static class Statistic extends Entry<Listener> {
+    private final AtomicLong membersRegistered = new AtomicLong();
+    private volatile boolean timed;
+
+    public Statistic(Listener listener, String subject) {
+      super(listener, subject);
+    }
+
+    void add(int registered, long nanos) {
+      timed = true;
+      add(nanos);
+      membersRegistered.addAndGet(registered);
+    }
+
+    void count(int registered) {
+      add(0);
+      membersRegistered.addAndGet(registered);
+    }
+
+    public Listener getListener() {
+      return getKind();
+    }
+
+    public long getTypesHeard() {
+      return getCount();
+    }
+
+    public long getMembersRegistered() {
+      return membersRegistered.get();
+    }
+
+    /**
+     * Returns true if the time of this listener has been recorded or false if it has only been
+     * counted as its time is recorded against the listener which dispatched it
+     */
+    public boolean isTimed() {
+      return timed;
+    }
+
+    @Override public String toString() {
+      return getListener() + " " + getSubject() + ": " + getTypesHeard() + " types, "
+          + getMembersRegistered() + " members, " + (timed ? getTotalNanos() + "ns" : "counted");
+    }
+  }
+}
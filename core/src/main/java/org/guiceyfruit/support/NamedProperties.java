@@ -0,0 +1,291 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Binding;
+import com.google.inject.ConfigurationException;
+import com.google.inject.ImplementedBy;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.ProvidedBy;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Named;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.HasDependencies;
+import com.google.inject.spi.InjectionPoint;
+import com.google.inject.spi.InjectionRequest;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.PrivateElements;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProviderKeyBinding;
+import com.google.inject.spi.StaticInjectionRequest;
+import com.google.inject.spi.UntargettedBinding;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+/**
+ * Helper methods to choose which properties of an environment are bound as {@link Named}
+ * constants, so that an injector created from a large environment such as the system properties
+ * does not have to bind hundreds of constants which are never used.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class NamedProperties {
+  /**
+   * The annotations of injected members whose <code>name()</code> may be looked up as a named
+   * binding; they are compared by name so that their APIs do not have to be on the classpath
+   */
+  private static final List<String> NAMED_MEMBER_ANNOTATIONS = Arrays.asList(
+      "javax.annotation.Resource", "javax.persistence.PersistenceContext");
+
+  /**
+   * Returns a predicate which matches property names starting with any of the given prefixes,
+   * which are separated by whitespace or commas. A prefix can also be a complete property name.
+   */
+  public static Predicate<String> prefixes(String prefixes) {
+    final List<String> list = Lists.newArrayList();
+    StringTokenizer iter = new StringTokenizer(prefixes, " \t\n\r\f,");
+    while (iter.hasMoreTokens()) {
+      list.add(iter.nextToken());
+    }
+    return new Predicate<String>() {
+      public boolean matches(String name) {
+        for (String prefix : list) {
+          if (name.startsWith(prefix)) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      public String toString() {
+        return "Prefixes" + list;
+      }
+    };
+  }
+
+  /**
+   * Returns the entries of the environment whose keys and values are strings and whose keys match
+   * the given filter
+   *
+   * @param environment the properties to filter
+   * @param filter the filter of property names or null if all of the properties are required
+   */
+  public static Map<String, String> filter(Map<?, ?> environment, Predicate<String> filter) {
+    Map<String, String> answer = Maps.newHashMap();
+    for (Entry<?, ?> entry : environment.entrySet()) {
+      Object key = entry.getKey();
+      Object value = entry.getValue();
+      if (key instanceof String && value instanceof String) {
+        String name = (String) key;
+        if (filter == null || filter.matches(name)) {
+          answer.put(name, (String) value);
+        }
+      }
+    }
+    return answer;
+  }
+
+  /**
+   * Returns the names of the {@link Named} dependencies of the given module elements and of the
+   * types they bind, following dependencies on other concrete types, along with the names of the
+   * <code>@Resource</code> and <code>@PersistenceContext</code> members of those types and of the
+   * bound instances. A <code>@Resource</code> without a name uses the name of the member as
+   * GuiceyFruit does when injecting it.
+   *
+   * The elements are scanned before any object is created, so names only looked up at runtime are
+   * not found; such as the types which are only created just in time by calls to the injector,
+   * objects passed to <code>injectMembers()</code> and keys created by the application.
+   */
+  public static Set<String> getReferencedNames(Iterable<? extends Element> elements) {
+    NamedProperties answer = new NamedProperties();
+    answer.addElements(elements);
+    return answer.names;
+  }
+
+  private final Set<String> names = Sets.newHashSet();
+  private final Set<TypeLiteral<?>> visitedTypes = Sets.newHashSet();
+  private final Set<Class<?>> visitedClasses = Sets.newHashSet();
+
+  private NamedProperties() {
+  }
+
+  private void addElements(Iterable<? extends Element> elements) {
+    for (Element element : elements) {
+      if (element instanceof UntargettedBinding) {
+        addType(((Binding<?>) element).getKey().getTypeLiteral());
+      }
+      else if (element instanceof LinkedKeyBinding) {
+        addKey(((LinkedKeyBinding<?>) element).getLinkedKey());
+      }
+      else if (element instanceof ProviderKeyBinding) {
+        addKey(((ProviderKeyBinding<?>) element).getProviderKey());
+      }
+      else if (element instanceof InstanceBinding) {
+        addDependencies(((HasDependencies) element).getDependencies());
+        addNamedMembers(((InstanceBinding<?>) element).getInstance());
+      }
+      else if (element instanceof ProviderInstanceBinding) {
+        // includes the parameters of @Provides methods as well as the injected members
+        addDependencies(((HasDependencies) element).getDependencies());
+        addNamedMembers(((ProviderInstanceBinding<?>) element).getProviderInstance());
+      }
+      else if (element instanceof InjectionRequest) {
+        InjectionRequest<?> request = (InjectionRequest<?>) element;
+        addInjectionPoints(request.getInjectionPoints());
+        addNamedMembers(request.getInstance());
+      }
+      else if (element instanceof StaticInjectionRequest) {
+        addInjectionPoints(((StaticInjectionRequest) element).getInjectionPoints());
+      }
+      else if (element instanceof PrivateElements) {
+        addElements(((PrivateElements) element).getElements());
+      }
+    }
+  }
+
+  private void addInjectionPoints(Iterable<InjectionPoint> injectionPoints) {
+    for (InjectionPoint injectionPoint : injectionPoints) {
+      addDependencies(injectionPoint.getDependencies());
+    }
+  }
+
+  private void addDependencies(Iterable<Dependency<?>> dependencies) {
+    for (Dependency<?> dependency : dependencies) {
+      addKey(dependency.getKey());
+    }
+  }
+
+  private void addKey(Key<?> key) {
+    Annotation annotation = key.getAnnotation();
+    if (annotation instanceof Named) {
+      names.add(((Named) annotation).value());
+    }
+    else if (key.getAnnotationType() == null) {
+      addType(key.getTypeLiteral());
+    }
+  }
+
+  private void addType(TypeLiteral<?> type) {
+    if (!visitedTypes.add(type)) {
+      return;
+    }
+    Class<?> rawType = type.getRawType();
+    if (rawType == Provider.class) {
+      Type providedType = type.getType();
+      if (providedType instanceof ParameterizedType) {
+        addType(TypeLiteral.get(((ParameterizedType) providedType).getActualTypeArguments()[0]));
+      }
+      return;
+    }
+    String name = rawType.getName();
+    if (rawType.isPrimitive() || rawType.isArray() || name.startsWith("java.")
+        || name.startsWith("javax.") || name.startsWith("com.google.inject.")) {
+      return;
+    }
+    if (rawType.isInterface() || Modifier.isAbstract(rawType.getModifiers())) {
+      ImplementedBy implementedBy = rawType.getAnnotation(ImplementedBy.class);
+      if (implementedBy != null) {
+        addType(TypeLiteral.get(implementedBy.value()));
+      }
+      ProvidedBy providedBy = rawType.getAnnotation(ProvidedBy.class);
+      if (providedBy != null) {
+        addType(TypeLiteral.get(providedBy.value()));
+      }
+      return;
+    }
+    try {
+      addInjectionPoints(Lists.newArrayList(InjectionPoint.forConstructorOf(type)));
+    }
+    catch (ConfigurationException e) {
+      // ignore - the type cannot be constructed by Guice
+    }
+    try {
+      addInjectionPoints(InjectionPoint.forInstanceMethodsAndFields(type));
+    }
+    catch (ConfigurationException e) {
+      // ignore - the injector will report the invalid injection points
+    }
+    addNamedMembers(rawType);
+  }
+
+  private void addNamedMembers(Object instance) {
+    if (instance != null) {
+      addNamedMembers(instance.getClass());
+    }
+  }
+
+  /** Adds the names of the named member annotations of the given class and its superclasses */
+  private void addNamedMembers(Class<?> type) {
+    for (; type != null && !type.getName().startsWith("java."); type = type.getSuperclass()) {
+      if (!visitedClasses.add(type)) {
+        return;
+      }
+      for (Field field : type.getDeclaredFields()) {
+        addNamedMember(field, field);
+      }
+      for (Method method : type.getDeclaredMethods()) {
+        addNamedMember(method, method);
+      }
+    }
+  }
+
+  private void addNamedMember(AnnotatedElement element, Member member) {
+    for (Annotation annotation : element.getAnnotations()) {
+      String annotationName = annotation.annotationType().getName();
+      if (NAMED_MEMBER_ANNOTATIONS.contains(annotationName)) {
+        String name = getAnnotationName(annotation);
+        if (name == null || name.length() == 0) {
+          // only @Resource defaults to the member name, a persistence unit has no default name
+          name = annotationName.equals("javax.annotation.Resource") ? member.getName() : null;
+        }
+        if (name != null) {
+          names.add(name);
+        }
+      }
+    }
+  }
+
+  private static String getAnnotationName(Annotation annotation) {
+    try {
+      Object value = annotation.annotationType().getMethod("name").invoke(annotation);
+      return value instanceof String ? (String) value : null;
+    }
+    catch (Exception e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A base class for recording the number and time of events of each kind for each subject, such as
+ * a module, annotation type or test class, which only records anything when enabled.
+ *
+ * @param <K> the kinds of event which are recorded
+ * @param <E> the type of the accumulated entry for one kind of event and subject
+ * @version $Revision: 1.1 $
+ */
+public abstract class TimingsSupport<K extends Enum<K>, E extends TimingsSupport.Entry<K>> {
+  private final boolean enabled;
+  private final ConcurrentMap<String, E> entries = new ConcurrentHashMap<String, E>();
+
+  protected TimingsSupport(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Returns the start time to pass when recording an event */
+  public long start() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /** Clears the recorded entries */
+  public void reset() {
+    entries.clear();
+  }
+
+  /** Returns the entry for the given kind and subject, creating it if it does not exist */
+  protected E getOrCreateEntry(K kind, Object subject) {
+    String name = getName(subject);
+    String key = kind + " " + name;
+    E entry = entries.get(key);
+    if (entry == null) {
+      entry = createEntry(kind, name);
+      E existing = entries.putIfAbsent(key, entry);
+      if (existing != null) {
+        entry = existing;
+      }
+    }
+    return entry;
+  }
+
+  /** Returns the entry for the given kind and subject or null if nothing has been recorded */
+  protected E getEntry(K kind, Object subject) {
+    return entries.get(kind + " " + getName(subject));
+  }
+
+  /** Returns the recorded entries, the slowest first */
+  protected List<E> getEntries() {
+    List<E> answer = Lists.newArrayList(entries.values());
+    Collections.sort(answer, new Comparator<E>() {
+      public int compare(E e1, E e2) {
+        long n1 = e1.getTotalNanos();
+        long n2 = e2.getTotalNanos();
+        return n1 < n2 ? 1 : n1 == n2 ? 0 : -1;
+      }
+    });
+    return answer;
+  }
+
+  /** Creates the entry for the given kind and subject name */
+  protected abstract E createEntry(K kind, String subject);
+
+  protected static String getName(Object subject) {
+    return subject instanceof Class ? ((Class<?>) subject).getName() : String.valueOf(subject);
+  }
+
+  /** The accumulated number and time of one kind of event for one subject */
+  public static class Entry<K> {
+    private final K kind;
+    private final String subject;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    protected Entry(K kind, String subject) {
+      this.kind = kind;
+      this.subject = subject;
+    }
+
+    protected void add(long nanos) {
+      count.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+    }
+
+    public K getKind() {
+      return kind;
+    }
+
+    public String getSubject() {
+      return subject;
+    }
+
+    public long getCount() {
+      return count.get();
+    }
+
+    public long getTotalNanos() {
+      return totalNanos.get();
+    }
+
+    @Override public String toString() {
+      return kind + " " + subject + ": " + getCount() + " x " + getTotalNanos() + "ns";
+    }
+  }
+}
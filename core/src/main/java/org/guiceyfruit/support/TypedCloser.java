@@ -0,0 +1,35 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+/**
+ * A {@link Closer} which declares the types of object it handles so that a {@link CompositeCloser}
+ * only offers it objects it can actually close. Closers which do not implement this interface are
+ * offered every object.
+ *
+ * @version $Revision: 1.1 $
+ */
+public interface TypedCloser extends Closer {
+
+  /**
+   * Returns true if this closer handles objects of the given type. The answer is cached per type so
+   * it must always be the same for a given type.
+   */
+  boolean canClose(Class<?> type);
+}
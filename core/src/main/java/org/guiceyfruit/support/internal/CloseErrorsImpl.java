@@ -18,30 +18,54 @@
 
 package org.guiceyfruit.support.internal;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.util.List;
+import org.guiceyfruit.support.CloseError;
 import org.guiceyfruit.support.CloseErrors;
 import org.guiceyfruit.support.CloseFailedException;
 
 /**
- * The default implementation of @{link CloseErrors}
+ * The default implementation of @{link CloseErrors} which records each failure as a raw
+ * {@link CloseError} so that no formatting is done until a {@link CloseFailedException} is
+ * actually reported. It is safe to report errors from multiple threads.
  * 
  * @version $Revision: 1.1 $
  */
 public class CloseErrorsImpl implements CloseErrors {
-  final Errors errors;
+  private final Object source;
+  private final List<CloseError> errors = Lists.newArrayList();
 
   public CloseErrorsImpl(Object source) {
-    this.errors = new Errors(source);
+    this.source = source;
   }
 
-  public void closeError(Object key, Object object, Exception cause) {
-    errors.addMessage(cause, "Failed to close object %s with key %s", object, key);
+  public void closeError(Object key, Object object, Throwable cause) {
+    CloseError error = new CloseError(key, object, cause);
+    synchronized (errors) {
+      errors.add(error);
+    }
+  }
+
+  public boolean hasErrors() {
+    synchronized (errors) {
+      return !errors.isEmpty();
+    }
+  }
+
+  /** Returns a snapshot of the errors reported so far */
+  public List<CloseError> getCloseErrors() {
+    synchronized (errors) {
+      return ImmutableList.copyOf(errors);
+    }
   }
 
   public void throwIfNecessary() throws CloseFailedException {
-    if (!errors.hasErrors()) {
+    List<CloseError> list = getCloseErrors();
+    if (list.isEmpty()) {
       return;
     }
 
-    throw new CloseFailedException(errors.getMessages());
+    throw new CloseFailedException(source, list);
   }
 }
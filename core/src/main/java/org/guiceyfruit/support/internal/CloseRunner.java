@@ -0,0 +1,261 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support.internal;
+
+import com.google.common.collect.Lists;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.guiceyfruit.support.CloseErrors;
+import org.guiceyfruit.support.ClosePolicy;
+import org.guiceyfruit.support.CloseTimeoutException;
+import org.guiceyfruit.support.Closer;
+import org.guiceyfruit.support.CompositeCloser;
+
+/**
+ * Closes a number of objects with a collection of {@link Closer} strategies honouring the timeouts
+ * and concurrency of a {@link ClosePolicy}. Each object is only offered to the closers which handle
+ * its type and each closer is invoked independently so that a failing or hung closer does not stop
+ * the other closers from releasing their resources.
+ * <p>
+ * Closers which exceed their timeout are interrupted and abandoned on daemon threads so that they
+ * cannot keep the JVM alive. A closer which is interrupted for any other reason is reported as a
+ * close error and the remaining closers and objects are still closed.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class CloseRunner {
+  private static final AtomicInteger threadCounter = new AtomicInteger(0);
+
+  private final CompositeCloser compositeCloser;
+  private final CloseErrors errors;
+  private final ClosePolicy policy;
+  private ExecutorService closerExecutor;
+  private boolean interrupted;
+
+  public CloseRunner(Collection<Closer> closers, CloseErrors errors, ClosePolicy policy) {
+    this.compositeCloser = new CompositeCloser(closers);
+    this.errors = errors;
+    this.policy = policy;
+  }
+
+  /** Closes all of the values of the given map which is indexed by the key of each object */
+  public void close(Map<?, ?> objects) {
+    if (objects.isEmpty()) {
+      return;
+    }
+    ExecutorService objectExecutor = null;
+    if (policy.getThreads() > 1 || policy.getTimeout() > 0) {
+      objectExecutor = Executors.newFixedThreadPool(policy.getThreads(), daemonThreadFactory());
+    }
+    if (policy.getCloserTimeout() > 0) {
+      closerExecutor = Executors.newCachedThreadPool(daemonThreadFactory());
+    }
+    try {
+      if (objectExecutor == null) {
+        for (Entry<?, ?> entry : objects.entrySet()) {
+          closeObject(entry.getKey(), entry.getValue(), null);
+        }
+      }
+      else {
+        closeConcurrently(objects, objectExecutor);
+      }
+    }
+    finally {
+      if (objectExecutor != null) {
+        objectExecutor.shutdownNow();
+      }
+      if (closerExecutor != null) {
+        closerExecutor.shutdownNow();
+      }
+      // lets restore the interrupt we reported so the caller can still see it
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  protected void closeConcurrently(Map<?, ?> objects, ExecutorService executor) {
+    List<Entry<?, ?>> entries = Lists.newArrayList();
+    List<Future<?>> futures = Lists.newArrayList();
+    List<AtomicBoolean> cancelled = Lists.newArrayList();
+    for (final Entry<?, ?> entry : objects.entrySet()) {
+      final AtomicBoolean entryCancelled = new AtomicBoolean(false);
+      entries.add(entry);
+      cancelled.add(entryCancelled);
+      futures.add(executor.submit(new Runnable() {
+        public void run() {
+          closeObject(entry.getKey(), entry.getValue(), entryCancelled);
+        }
+      }));
+    }
+
+    long timeout = policy.getTimeout();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    for (int i = 0, size = futures.size(); i < size; i++) {
+      Future<?> future = futures.get(i);
+      Entry<?, ?> entry = entries.get(i);
+      if (interrupted) {
+        // we stopped waiting when we were interrupted so lets not wait for the other objects
+        cancelled.get(i).set(true);
+        future.cancel(true);
+        closeError(entry.getKey(), entry.getValue(), new InterruptedException(
+            "Closing was interrupted before the object was closed"));
+        continue;
+      }
+      try {
+        if (timeout > 0) {
+          future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        else {
+          future.get();
+        }
+      }
+      catch (TimeoutException e) {
+        cancelled.get(i).set(true);
+        future.cancel(true);
+        closeError(entry.getKey(), entry.getValue(), new CloseTimeoutException(
+            "Closing did not complete within the overall timeout of " + timeout + "ms", timeout));
+      }
+      catch (InterruptedException e) {
+        // the interrupt is restored once closing is done
+        interrupted = true;
+        cancelled.get(i).set(true);
+        future.cancel(true);
+        closeError(entry.getKey(), entry.getValue(), e);
+      }
+      catch (ExecutionException e) {
+        closeError(entry.getKey(), entry.getValue(), e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Closes the object with each of the closers for its type
+   *
+   * @param cancelled set if the worker closing the object on the object executor has been
+   * cancelled or null if the object is being closed by the calling thread
+   */
+  protected void closeObject(Object key, Object object, AtomicBoolean cancelled) {
+    List<Closer> closers;
+    try {
+      closers = compositeCloser.getClosers(object.getClass());
+    }
+    catch (Throwable e) {
+      // a closer failed to check if it can close the type
+      closeError(key, object, e);
+      return;
+    }
+    for (Closer closer : closers) {
+      if (cancelled != null && cancelled.get()) {
+        // we have been cancelled as we took too long; the timeout has been reported
+        return;
+      }
+      try {
+        if (closerExecutor == null) {
+          closer.close(object);
+        }
+        else {
+          closeWithTimeout(key, object, closer);
+        }
+      }
+      catch (InterruptedException e) {
+        if (cancelled != null && cancelled.get()) {
+          return;
+        }
+        if (cancelled == null) {
+          // lets clear the interrupt until we are done so the other closers are not interrupted
+          Thread.interrupted();
+          interrupted = true;
+        }
+        closeError(key, object, e);
+      }
+      catch (Throwable e) {
+        closeError(key, object, e);
+      }
+    }
+  }
+
+  /**
+   * Closes the object with the closer on the closer executor, waiting up to the closer timeout
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  protected void closeWithTimeout(Object key, final Object object, final Closer closer)
+      throws InterruptedException {
+    long timeout = policy.getCloserTimeout();
+    Future<Throwable> future = closerExecutor.submit(new Callable<Throwable>() {
+      public Throwable call() {
+        try {
+          closer.close(object);
+          return null;
+        }
+        catch (Throwable e) {
+          return e;
+        }
+      }
+    });
+    try {
+      Throwable e = future.get(timeout, TimeUnit.MILLISECONDS);
+      if (e != null) {
+        closeError(key, object, e);
+      }
+    }
+    catch (TimeoutException e) {
+      future.cancel(true);
+      closeError(key, object, new CloseTimeoutException(
+          "Closer " + closer + " did not complete within " + timeout + "ms", timeout));
+    }
+    catch (InterruptedException e) {
+      future.cancel(true);
+      throw e;
+    }
+    catch (ExecutionException e) {
+      closeError(key, object, e.getCause());
+    }
+  }
+
+  protected void closeError(Object key, Object object, Throwable cause) {
+    synchronized (errors) {
+      errors.closeError(key, object, cause);
+    }
+  }
+
+  protected ThreadFactory daemonThreadFactory() {
+    return new ThreadFactory() {
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable,
+            "GuiceyFruit Closer " + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+  }
+}
@@ -19,38 +19,87 @@
 package org.guiceyfruit.testing;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
+import com.google.inject.CreationException;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.Message;
+import com.google.inject.util.Modules;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.guiceyfruit.Injectors;
 import org.guiceyfruit.support.CloseErrors;
 import org.guiceyfruit.support.CloseFailedException;
 import org.guiceyfruit.support.internal.CloseErrorsImpl;
+import org.guiceyfruit.testing.TestTimings.Phase;
 import org.guiceyfruit.util.CloseableScope;
 
 /**
  * Used to manage the injectors for the various injection points
  *
+ * A single manager can be shared by tests running in parallel; the {@link TestScoped} objects are
+ * kept for each thread and the {@link ClassScoped} objects for each test class.
+ *
  * @version $Revision: 1.1 $
  */
 public class InjectorManager {
+  /**
+   * The system property used to define the maximum number of injectors kept alive at once. When
+   * more module configurations are used the least recently used injector is closed. Defaults to
+   * zero which means there is no limit
+   */
+  public static final String MAX_INJECTORS = "org.guiceyfruit.testing.maxInjectors";
 
-  private Map<Object, Injector> injectors = new ConcurrentHashMap<Object, Injector>();
+  /**
+   * The system property used to enable creating injectors in the background before the tests
+   * which need them are run. The value is the number of threads to use; it defaults to zero which
+   * disables warm up
+   */
+  public static final String WARM_UP_THREADS = "org.guiceyfruit.testing.warmUpThreads";
+
+  private final Map<ModuleFingerprint, Injector> injectors
+      = new LinkedHashMap<ModuleFingerprint, Injector>(16, 0.75f, true);
+  private final Map<Class<?>, ModuleFingerprint> fingerprints
+      = new ConcurrentHashMap<Class<?>, ModuleFingerprint>();
+  private int maxInjectors = Integer.getInteger(MAX_INJECTORS, 0);
+  private int warmUpThreads = Integer.getInteger(WARM_UP_THREADS, 0);
+  private ExecutorService warmUpExecutor;
+  private final AtomicInteger warmUpThreadCounter = new AtomicInteger(0);
+  private final Map<ModuleFingerprint, FutureTask<Injector>> pendingInjectors = Maps.newHashMap();
+  private final Map<Injector, Integer> injectorsInUse = Maps.newHashMap();
+  private final Map<Injector, Injector> overlayParents = Maps.newHashMap();
+  private final Map<Injector, ModuleFingerprint> injectorFingerprints = Maps.newHashMap();
+  private final TestTimings timings = new TestTimings();
   private AtomicInteger initializeCounter = new AtomicInteger(0);
-  private CloseableScope testScope = new CloseableScope(TestScoped.class);
-  private CloseableScope classScope = new CloseableScope(ClassScoped.class);
+  private ThreadScope testScope = new ThreadScope(TestScoped.class);
+  private TestClassScope classScope = new TestClassScope(ClassScoped.class);
   private static final String NESTED_MODULE_CLASS = "TestModule";
   private boolean closeSingletonsAfterClasses = false;
   private boolean runFinalizer = true;
-  private Injector lastClassInjector;
-  private Class<? extends Module> moduleType;
 
   public void beforeClasses() {
     int counter = initializeCounter.incrementAndGet();
@@ -69,6 +118,9 @@ public class InjectorManager {
               System.out.println("Failed to shut down Guice Singletons: " + e);
               e.printStackTrace();
             }
+            if (timings.isEnabled()) {
+              System.out.println(timings.report());
+            }
           }
         });
       }
@@ -76,14 +128,40 @@ public class InjectorManager {
 
   }
 
-  /** Lets close all of the injectors we have created so far */
+  /**
+   * Closes the class scope of the last test class run on the calling thread.
+   *
+   * @deprecated use {@link #afterClasses(Class)} which also works when test classes are run in
+   *     parallel
+   */
+  @Deprecated
   public void afterClasses() throws CloseFailedException {
-    Injector injector = injectors.get(moduleType);
+    Class<?> testClass = classScope.getTestClass();
+    if (testClass != null) {
+      afterClasses(testClass);
+    }
+    else {
+      System.out.println("Could not close Class scope as no test has been run on this thread");
+    }
+  }
+
+  /** Closes the class scope of the given test class */
+  public void afterClasses(Class<?> testClass) throws CloseFailedException {
+    Preconditions.checkNotNull(testClass, "testClass");
+
+    ModuleFingerprint fingerprint = fingerprints.get(testClass);
+    Injector injector = getInjector(fingerprint);
     if (injector != null) {
-      classScope.close(injector);
+      long start = timings.start();
+      try {
+        classScope.close(injector, testClass);
+      }
+      finally {
+        timings.record(Phase.CLOSE_CLASS_SCOPE, testClass, start);
+      }
     }
     else {
-      System.out.println("Could not close Class scope as there is no Injector for module type " + injector);
+      System.out.println("Could not close Class scope as there is no Injector for module " + fingerprint);
     }
 
     // NOTE that we don't have any good hooks yet to call complete()
@@ -94,34 +172,79 @@ public class InjectorManager {
     }
   }
 
+  /**
+   * Starts creating the injectors for the given test classes in the background if warm up is
+   * enabled, so that they are ready by the time the tests are run. Any problem working out the
+   * module for a test class is ignored here and reported when the test is run.
+   *
+   * @see #WARM_UP_THREADS
+   */
+  public void warmUp(Class<?>... testClasses) {
+    if (warmUpThreads <= 0) {
+      return;
+    }
+    for (Class<?> testClass : testClasses) {
+      ModuleFingerprint fingerprint;
+      try {
+        fingerprint = getModuleFingerprint(testClass);
+      }
+      catch (Exception e) {
+        continue;
+      }
+      catch (LinkageError e) {
+        continue;
+      }
+
+      FutureTask<Injector> task;
+      ExecutorService executor;
+      synchronized (injectors) {
+        if (injectors.containsKey(fingerprint) || pendingInjectors.containsKey(fingerprint)) {
+          continue;
+        }
+        task = newInjectorTask(fingerprint);
+        pendingInjectors.put(fingerprint, task);
+        executor = getWarmUpExecutor();
+      }
+      executor.execute(task);
+    }
+  }
+
   public void beforeTest(Object test) throws Exception {
     Preconditions.checkNotNull( test, "test" );
 
     Class<? extends Object> testType = test.getClass();
-    moduleType = getModuleForTestClass(testType);
+    ModuleFingerprint fingerprint = getModuleFingerprint(testType);
+    Injector classInjector = acquireInjector(fingerprint);
 
-    Injector classInjector;
-    synchronized (injectors) {
-      classInjector = injectors.get(moduleType);
-      if (classInjector == null) {
-        classInjector = createInjector(moduleType);
-        Preconditions.checkNotNull(classInjector, "classInjector");
-        injectors.put(moduleType, classInjector);
+    classScope.setTestClass(testType);
+    long start = timings.start();
+    try {
+      if (testType.isAnnotationPresent(LazyInjection.class)) {
+        new LazyMembersInjector(classInjector).injectMembers(test);
+      }
+      else {
+        classInjector.injectMembers(test);
       }
     }
-    injectors.put(testType, classInjector);
-
-    classInjector.injectMembers(test);
+    finally {
+      timings.record(Phase.INJECT_TEST, testType, start);
+    }
   }
 
   public void afterTest(Object test) throws Exception {
-    Injector injector = injectors.get(test.getClass());
+    Injector injector = getInjector(fingerprints.get(test.getClass()));
     if (injector == null) {
       System.out.println("Warning - no injector available for: " + test);
     }
     else {
-      lastClassInjector = injector;
-      testScope.close(injector);
+      long start = timings.start();
+      try {
+        testScope.close(injector);
+      }
+      finally {
+        timings.record(Phase.CLOSE_TEST_SCOPE, test.getClass(), start);
+        releaseInjector(injector);
+      }
     }
   }
 
@@ -140,6 +263,45 @@ public class InjectorManager {
     this.closeSingletonsAfterClasses = closeSingletonsAfterClasses;
   }
 
+  /**
+   * Returns the timings of the test lifecycle which are recorded if the
+   * <code>org.guiceyfruit.testing.timings</code> system property is enabled
+   */
+  public TestTimings getTimings() {
+    return timings;
+  }
+
+  public int getWarmUpThreads() {
+    return warmUpThreads;
+  }
+
+  /**
+   * Sets the number of threads used to create injectors in the background via {@link
+   * #warmUp(Class[])}. Zero or less disables warm up
+   */
+  public void setWarmUpThreads(int warmUpThreads) {
+    this.warmUpThreads = warmUpThreads;
+  }
+
+  public int getMaxInjectors() {
+    return maxInjectors;
+  }
+
+  /**
+   * Sets the maximum number of injectors to keep alive at once, closing the least recently used
+   * injector when a new one is created. Zero or less means there is no limit
+   */
+  public void setMaxInjectors(int maxInjectors) {
+    this.maxInjectors = maxInjectors;
+  }
+
+  /** Returns the number of injectors currently alive */
+  public int getInjectorCount() {
+    synchronized (injectors) {
+      return injectors.size();
+    }
+  }
+
   protected class TestModule extends AbstractModule {
 
     protected void configure() {
@@ -150,16 +312,307 @@ public class InjectorManager {
 
   protected void closeInjectors() throws CloseFailedException {
     CloseErrors errors = new CloseErrorsImpl(this);
-    Set<Entry<Object, Injector>> entries = injectors.entrySet();
-    for (Entry<Object, Injector> entry : entries) {
-      // Object key = entry.getKey();
-      Injector injector = entry.getValue();
-      Injectors.close(injector, errors);
+    List<Injector> list = Lists.newArrayList();
+    Map<Injector, ModuleFingerprint> closing;
+    Map<ModuleFingerprint, FutureTask<Injector>> pending;
+    synchronized (injectors) {
+      // close the overlays before the injectors they are layered on
+      list.addAll(overlayParents.keySet());
+      for (Injector injector : injectors.values()) {
+        if (!overlayParents.containsKey(injector)) {
+          list.add(injector);
+        }
+      }
+      closing = Maps.newHashMap(injectorFingerprints);
+      injectors.clear();
+      injectorsInUse.clear();
+      overlayParents.clear();
+      injectorFingerprints.clear();
+      pending = Maps.newHashMap(pendingInjectors);
+      pendingInjectors.clear();
+      if (warmUpExecutor != null) {
+        warmUpExecutor.shutdownNow();
+        warmUpExecutor = null;
+      }
+    }
+    for (Entry<ModuleFingerprint, FutureTask<Injector>> entry : pending.entrySet()) {
+      // injectors being warmed up which no test has asked for yet
+      FutureTask<Injector> task = entry.getValue();
+      if (!task.cancel(true) && task.isDone()) {
+        try {
+          Injector injector = task.get();
+          list.add(injector);
+          closing.put(injector, entry.getKey());
+        }
+        catch (Exception e) {
+          // the injector could not be created so there is nothing to close
+        }
+      }
+    }
+    for (Injector injector : list) {
+      long start = timings.start();
+      try {
+        Injectors.close(injector, errors);
+      }
+      finally {
+        timings.record(Phase.CLOSE_INJECTOR, closing.get(injector), start);
+      }
     }
-    injectors.clear();
     errors.throwIfNecessary();
   }
 
+  protected Injector getInjector(ModuleFingerprint fingerprint) {
+    if (fingerprint == null) {
+      return null;
+    }
+    synchronized (injectors) {
+      return injectors.get(fingerprint);
+    }
+  }
+
+  /**
+   * Returns the injector for the given module configuration, creating it if required, and marks it
+   * as in use until {@link #releaseInjector(Injector)} is called. If another thread is already
+   * creating the injector then we wait for it rather than creating it twice; if the injector is
+   * only queued for warm up then we create it straight away on this thread.
+   */
+  protected Injector acquireInjector(ModuleFingerprint fingerprint) throws Exception {
+    FutureTask<Injector> task;
+    synchronized (injectors) {
+      // a get on an access ordered map marks the injector as the most recently used
+      Injector injector = injectors.get(fingerprint);
+      if (injector != null) {
+        markInUse(injector, 1);
+        return injector;
+      }
+      task = pendingInjectors.get(fingerprint);
+      if (task == null) {
+        task = newInjectorTask(fingerprint);
+        pendingInjectors.put(fingerprint, task);
+      }
+    }
+
+    // does nothing if the task is already running or done, otherwise a task still queued for
+    // warm up is run on this thread rather than waiting for the rest of the warm up queue
+    task.run();
+    Injector injector;
+    try {
+      injector = task.get();
+    }
+    catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), Exception.class);
+      throw e;
+    }
+    finally {
+      synchronized (injectors) {
+        if (pendingInjectors.get(fingerprint) == task) {
+          pendingInjectors.remove(fingerprint);
+        }
+      }
+    }
+    Preconditions.checkNotNull(injector, "classInjector");
+
+    List<Injector> evicted = Lists.newArrayList();
+    synchronized (injectors) {
+      if (!injectors.containsKey(fingerprint)) {
+        injectors.put(fingerprint, injector);
+        injectorFingerprints.put(injector, fingerprint);
+      }
+      injector = injectors.get(fingerprint);
+      markInUse(injector, 1);
+      evictInjectors(evicted);
+    }
+    closeEvictedInjectors(evicted);
+    return injector;
+  }
+
+  private FutureTask<Injector> newInjectorTask(final ModuleFingerprint fingerprint) {
+    return new FutureTask<Injector>(new Callable<Injector>() {
+      public Injector call() throws Exception {
+        return createInjector(fingerprint);
+      }
+    });
+  }
+
+  private ExecutorService getWarmUpExecutor() {
+    if (warmUpExecutor == null) {
+      warmUpExecutor = Executors.newFixedThreadPool(warmUpThreads, new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable,
+              "GuiceyFruit Injector Warm Up " + warmUpThreadCounter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return warmUpExecutor;
+  }
+
+  /** Marks the given injector as no longer being used by a test */
+  protected void releaseInjector(Injector injector) {
+    synchronized (injectors) {
+      markInUse(injector, -1);
+    }
+  }
+
+  private void markInUse(Injector injector, int delta) {
+    Integer count = injectorsInUse.get(injector);
+    int value = (count == null ? 0 : count) + delta;
+    if (value > 0) {
+      injectorsInUse.put(injector, value);
+    }
+    else {
+      injectorsInUse.remove(injector);
+    }
+  }
+
+  /**
+   * Removes the least recently used injectors which are not in use by a running test if there are
+   * more than {@link #getMaxInjectors()}
+   */
+  private void evictInjectors(List<Injector> evicted) {
+    if (maxInjectors <= 0) {
+      return;
+    }
+    Iterator<Injector> iterator = injectors.values().iterator();
+    while (injectors.size() > maxInjectors && iterator.hasNext()) {
+      Injector injector = iterator.next();
+      if (!injectorsInUse.containsKey(injector)) {
+        evicted.add(injector);
+        iterator.remove();
+      }
+    }
+  }
+
+  private void closeEvictedInjectors(List<Injector> evicted) {
+    for (Injector injector : evicted) {
+      ModuleFingerprint fingerprint;
+      synchronized (injectors) {
+        fingerprint = injectorFingerprints.remove(injector);
+      }
+      long start = timings.start();
+      try {
+        Injectors.close(injector);
+      }
+      catch (CloseFailedException e) {
+        System.out.println("Failed to close evicted Guice Injector: " + e);
+        e.printStackTrace();
+      }
+      finally {
+        timings.record(Phase.CLOSE_INJECTOR, fingerprint, start);
+
+        // the shared injector of an overlay can now be evicted in turn
+        Injector parent;
+        synchronized (injectors) {
+          parent = overlayParents.remove(injector);
+        }
+        if (parent != null) {
+          releaseInjector(parent);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the fingerprint of the module configuration for the given test class so that test
+   * classes with the same configuration share the same injector. The fingerprint is only worked
+   * out once for each test class.
+   */
+  protected ModuleFingerprint getModuleFingerprint(Class<?> testType)
+      throws IllegalAccessException, InstantiationException, ClassNotFoundException {
+    ModuleFingerprint answer = fingerprints.get(testType);
+    if (answer == null) {
+      Class<? extends Module> moduleType = getModuleForTestClass(testType);
+      String modules = null;
+      if (moduleType == null) {
+        modules = System.getProperty(Injectors.MODULE_CLASS_NAMES, "").trim();
+      }
+      answer = new ModuleFingerprint(moduleType, modules, getOverlayForTestClass(testType));
+      fingerprints.put(testType, answer);
+    }
+    return answer;
+  }
+
+  /**
+   * A scope which keeps separate objects for each thread so that tests can be run in parallel
+   * without closing each others objects
+   */
+  protected static class ThreadScope extends CloseableScope {
+    private final ThreadLocal<Map<Key<?>, Object>> maps = new ThreadLocal<Map<Key<?>, Object>>() {
+      @Override
+      protected Map<Key<?>, Object> initialValue() {
+        return Maps.newHashMap();
+      }
+    };
+
+    public ThreadScope(Class<? extends Annotation> scopeAnnotation) {
+      super(scopeAnnotation);
+    }
+
+    @Override
+    protected Map<Key<?>, Object> getScopeMap() {
+      return maps.get();
+    }
+  }
+
+  /**
+   * A scope which keeps separate objects for each test class. The test class is associated with
+   * the calling thread when a test starts so test classes can be run in parallel.
+   */
+  protected static class TestClassScope extends CloseableScope {
+    private final ConcurrentMap<Class<?>, Map<Key<?>, Object>> maps
+        = new ConcurrentHashMap<Class<?>, Map<Key<?>, Object>>();
+    private final ThreadLocal<Class<?>> testClass = new ThreadLocal<Class<?>>();
+
+    public TestClassScope(Class<? extends Annotation> scopeAnnotation) {
+      super(scopeAnnotation);
+    }
+
+    /** Returns the test class last run on the calling thread */
+    public Class<?> getTestClass() {
+      return testClass.get();
+    }
+
+    public void setTestClass(Class<?> type) {
+      testClass.set(type);
+    }
+
+    /** Closes the objects in scope for the given test class */
+    public void close(Injector injector, Class<?> type) throws CloseFailedException {
+      Class<?> previous = testClass.get();
+      testClass.set(type);
+      try {
+        close(injector);
+      }
+      finally {
+        maps.remove(type);
+        if (previous == type) {
+          testClass.remove();
+        }
+        else {
+          testClass.set(previous);
+        }
+      }
+    }
+
+    @Override
+    protected Map<Key<?>, Object> getScopeMap() {
+      Class<?> type = testClass.get();
+      if (type == null) {
+        return super.getScopeMap();
+      }
+      Map<Key<?>, Object> answer = maps.get(type);
+      if (answer == null) {
+        answer = Maps.newHashMap();
+        Map<Key<?>, Object> existing = maps.putIfAbsent(type, answer);
+        if (existing != null) {
+          answer = existing;
+        }
+      }
+      return answer;
+    }
+  }
+
   /**
    * Factory method to return the module type that will be used to create an injector.
    *
@@ -228,6 +681,131 @@ public class InjectorManager {
     return moduleType;
   }
 
+  /**
+   * Returns the overlay module type for the given test class from its {@link UseModule}
+   * annotation or null if it has no overlay
+   */
+  protected Class<? extends Module> getOverlayForTestClass(Class<?> objectType) {
+    UseModule config = objectType.getAnnotation(UseModule.class);
+    if (config == null || config.overlay() == Module.class) {
+      return null;
+    }
+    return config.overlay();
+  }
+
+  /**
+   * Creates the injector for the given module configuration. An overlay is created as a child
+   * of the shared injector of its base configuration, which is kept alive while the overlay is.
+   * An overlay which rebinds keys of its base configuration gets a complete injector of its own.
+   *
+   * The creation time is recorded for each configuration; the time of an overlay does not include
+   * creating its base injector, which is recorded separately.
+   */
+  protected Injector createInjector(ModuleFingerprint fingerprint) throws Exception {
+    Class<? extends Module> overlayType = fingerprint.getOverlay();
+    if (overlayType == null) {
+      long start = timings.start();
+      try {
+        return createInjector(fingerprint.getModuleType());
+      }
+      finally {
+        timings.record(Phase.CREATE_INJECTOR, fingerprint, start);
+      }
+    }
+
+    List<Element> overlayElements = Elements.getElements(overlayType.newInstance());
+    Module overlay = Elements.getModule(overlayElements);
+    if (rebindsKeys(fingerprint.getModuleType(), overlayElements)) {
+      return createOverriddenInjector(fingerprint, overlay);
+    }
+
+    Injector base = acquireInjector(fingerprint.getBaseFingerprint());
+    boolean overlaid = false;
+    long start = timings.start();
+    try {
+      Injector injector;
+      try {
+        injector = base.createChildInjector(overlay);
+      }
+      finally {
+        timings.record(Phase.CREATE_INJECTOR, fingerprint, start);
+      }
+      synchronized (injectors) {
+        overlayParents.put(injector, base);
+      }
+      overlaid = true;
+      return injector;
+    }
+    catch (CreationException e) {
+      if (!isRebinding(e)) {
+        throw e;
+      }
+      // the overlay rebinds keys which are not explicitly bound by the module, such as the keys
+      // bound from the system properties, so needs a complete injector of its own
+      return createOverriddenInjector(fingerprint, overlay);
+    }
+    finally {
+      if (!overlaid) {
+        releaseInjector(base);
+      }
+    }
+  }
+
+  /**
+   * Returns true if the overlay elements bind any of the keys explicitly bound by the module type,
+   * so the overlay cannot be created as a child injector
+   */
+  protected boolean rebindsKeys(Class<? extends Module> moduleType, List<Element> overlayElements)
+      throws InstantiationException, IllegalAccessException {
+    if (moduleType == null) {
+      return false;
+    }
+    Set<Key<?>> keys = Sets.newHashSet();
+    for (Element element : Elements.getElements(moduleType.newInstance(), new TestModule())) {
+      if (element instanceof Binding) {
+        keys.add(((Binding<?>) element).getKey());
+      }
+    }
+    for (Element element : overlayElements) {
+      if (element instanceof Binding && keys.contains(((Binding<?>) element).getKey())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns true if the child injector could not be created as it rebinds keys of its parent */
+  private static boolean isRebinding(CreationException e) {
+    for (Message message : e.getErrorMessages()) {
+      String text = message.getMessage();
+      if (!text.contains("already configured") && !text.contains("bound multiple times")) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Injector createOverriddenInjector(ModuleFingerprint fingerprint, Module overlay)
+      throws Exception {
+    long start = timings.start();
+    try {
+      return createOverriddenInjector(fingerprint.getModuleType(), overlay);
+    }
+    finally {
+      timings.record(Phase.CREATE_INJECTOR, fingerprint, start);
+    }
+  }
+
+  /** Creates a complete injector for the module type with its bindings overridden by the overlay */
+  protected Injector createOverriddenInjector(Class<? extends Module> moduleType, Module overlay)
+      throws InstantiationException, IllegalAccessException, ClassNotFoundException {
+    if (moduleType == null) {
+      return Injectors.createInjector(System.getProperties(), new TestModule(), overlay);
+    }
+    Module module = moduleType.newInstance();
+    return Guice.createInjector(Modules.override(module).with(overlay), new TestModule());
+  }
+
   /**
    * Creates the injector for the given key
    */
@@ -0,0 +1,45 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a test class whose injected fields should be created lazily when they are first used
+ * rather than when the test starts, so that expensive collaborators which a test does not use are
+ * never created.
+ *
+ * Fields whose type is an interface are injected with a proxy which creates the object on first
+ * use; <code>Provider</code> fields, including JSR 330 providers, are injected with a provider from
+ * the injector. Any other fields and methods annotated with {@link com.google.inject.Inject} are
+ * injected as usual. A test with other annotated members, such as those injected by type
+ * listeners, is injected eagerly by the injector instead so that those members are not skipped.
+ *
+ * @see LazyMembersInjector
+ * @version $Revision: 1.1 $
+ */
+@Target({ TYPE })
+@Retention(RUNTIME)
+@Documented
+public @interface LazyInjection {
+}
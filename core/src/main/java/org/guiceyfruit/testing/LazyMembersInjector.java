@@ -0,0 +1,193 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing;
+
+import com.google.inject.BindingAnnotation;
+import com.google.inject.ConfigurationException;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.ProvisionException;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.InjectionPoint;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.guiceyfruit.support.LazyProviders;
+
+/**
+ * Injects the {@link com.google.inject.Inject} fields and methods of an object deferring the
+ * creation of interface and provider fields until they are first used.
+ *
+ * Objects with members which may be injected by type listeners, such as {@link
+ * javax.annotation.Resource} fields or {@link javax.annotation.PostConstruct} methods, are injected
+ * eagerly using the injector instead so that those members are not silently skipped. A member is
+ * treated as such if it has a runtime annotation which is not an inject or binding annotation or
+ * from a test framework.
+ *
+ * @see LazyInjection
+ * @version $Revision: 1.1 $
+ */
+public class LazyMembersInjector {
+  private final Injector injector;
+
+  public LazyMembersInjector(Injector injector) {
+    this.injector = injector;
+  }
+
+  public void injectMembers(Object instance) {
+    if (hasListenerMembers(instance.getClass())) {
+      injector.injectMembers(instance);
+      return;
+    }
+    for (InjectionPoint point : InjectionPoint.forInstanceMethodsAndFields(instance.getClass())) {
+      try {
+        Member member = point.getMember();
+        if (member instanceof Field) {
+          injectField(instance, (Field) member, point.getDependencies().get(0).getKey());
+        }
+        else {
+          injectMethod(instance, (Method) member, point.getDependencies());
+        }
+      }
+      catch (ConfigurationException e) {
+        if (!point.isOptional()) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  protected void injectField(Object instance, Field field, Key<?> key) {
+    Class<?> type = field.getType();
+    Object value;
+    if (LazyProviders.isProviderType(type)) {
+      Key<?> providedKey = getProvidedKey(field, key);
+      value = providedKey == null ? injector.getInstance(key)
+          : LazyProviders.adaptProvider(type, injector.getProvider(providedKey));
+    }
+    else if (type.isInterface()) {
+      value = newProxy(type, injector.getProvider(key));
+    }
+    else {
+      value = injector.getInstance(key);
+    }
+    try {
+      field.setAccessible(true);
+      field.set(instance, value);
+    }
+    catch (IllegalAccessException e) {
+      throw new ProvisionException("Failed to inject field " + field + ". Reason: " + e, e);
+    }
+  }
+
+  protected void injectMethod(Object instance, Method method, List<Dependency<?>> dependencies) {
+    Object[] args = new Object[dependencies.size()];
+    for (Dependency<?> dependency : dependencies) {
+      args[dependency.getParameterIndex()] = injector.getInstance(dependency.getKey());
+    }
+    try {
+      method.setAccessible(true);
+      method.invoke(instance, args);
+    }
+    catch (IllegalAccessException e) {
+      throw new ProvisionException("Failed to inject method " + method + ". Reason: " + e, e);
+    }
+    catch (InvocationTargetException e) {
+      throw new ProvisionException("Failed to inject method " + method + ". Reason: "
+          + e.getCause(), e.getCause());
+    }
+  }
+
+  /**
+   * Returns true if the type has fields or methods which may be injected or invoked by a type
+   * listener of the injector, which only runs if the injector injects the object
+   */
+  protected boolean hasListenerMembers(Class<?> type) {
+    for (Class<?> current = type; current != null && current != Object.class;
+        current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (hasListenerAnnotation(field.getAnnotations())) {
+          return true;
+        }
+      }
+      for (Method method : current.getDeclaredMethods()) {
+        if (hasListenerAnnotation(method.getAnnotations())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasListenerAnnotation(Annotation[] annotations) {
+    for (Annotation annotation : annotations) {
+      Class<? extends Annotation> annotationType = annotation.annotationType();
+      String name = annotationType.getName();
+      if (annotationType == Inject.class || name.equals("javax.inject.Inject")
+          || annotationType.isAnnotationPresent(BindingAnnotation.class)
+          || name.startsWith("java.") || name.startsWith("org.junit.")
+          || name.startsWith("junit.") || name.startsWith("org.testng.")) {
+        continue;
+      }
+      boolean qualifier = false;
+      for (Annotation meta : annotationType.getAnnotations()) {
+        if (meta.annotationType().getName().equals("javax.inject.Qualifier")) {
+          qualifier = true;
+        }
+      }
+      if (!qualifier) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T newProxy(Class<T> type, Provider<?> provider) {
+    return LazyProviders.newProxy(type, LazyProviders.memoize((Provider<T>) provider));
+  }
+
+  /**
+   * Returns the key of the objects provided by a provider field or null if the provided type is
+   * not known
+   */
+  private static Key<?> getProvidedKey(Field field, Key<?> key) {
+    Type genericType = field.getGenericType();
+    if (!(genericType instanceof ParameterizedType)) {
+      return null;
+    }
+    Type providedType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+    Annotation annotation = key.getAnnotation();
+    if (annotation != null) {
+      return Key.get(providedType, annotation);
+    }
+    Class<? extends Annotation> annotationType = key.getAnnotationType();
+    if (annotationType != null) {
+      return Key.get(providedType, annotationType);
+    }
+    return Key.get(providedType);
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing;
+
+import com.google.common.base.Objects;
+import com.google.inject.Module;
+
+/**
+ * Identifies the module configuration used to create an injector for a test class so that test
+ * classes with the same configuration can share the same injector.
+ *
+ * A fingerprint is made up from the module class, which comes from the {@link UseModule}
+ * annotation or the nested <code>TestModule</code> class, and the value of the
+ * <code>org.guiceyfruit.modules</code> system property if it is being used instead, along with the
+ * optional overlay module from {@link UseModule#overlay()}.
+ *
+ * @version $Revision: 1.1 $
+ */
+public final class ModuleFingerprint {
+  private final Class<? extends Module> moduleType;
+  private final String modules;
+  private final Class<? extends Module> overlay;
+
+  public ModuleFingerprint(Class<? extends Module> moduleType, String modules) {
+    this(moduleType, modules, null);
+  }
+
+  public ModuleFingerprint(Class<? extends Module> moduleType, String modules,
+      Class<? extends Module> overlay) {
+    this.moduleType = moduleType;
+    this.modules = modules;
+    this.overlay = overlay;
+  }
+
+  /**
+   * Returns the module class used to create the injector or null if the injector is created
+   * from the module class names in the system properties
+   */
+  public Class<? extends Module> getModuleType() {
+    return moduleType;
+  }
+
+  /** Returns the module class names from the system properties or null if they are not used */
+  public String getModules() {
+    return modules;
+  }
+
+  /** Returns the overlay module class or null if there is no overlay */
+  public Class<? extends Module> getOverlay() {
+    return overlay;
+  }
+
+  /** Returns the fingerprint of the shared configuration an overlay is applied to */
+  public ModuleFingerprint getBaseFingerprint() {
+    return overlay == null ? this : new ModuleFingerprint(moduleType, modules);
+  }
+
+  @Override public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ModuleFingerprint)) {
+      return false;
+    }
+    ModuleFingerprint that = (ModuleFingerprint) o;
+    return moduleType == that.moduleType && Objects.equal(modules, that.modules)
+        && overlay == that.overlay;
+  }
+
+  @Override public int hashCode() {
+    return Objects.hashCode(moduleType, modules, overlay);
+  }
+
+  @Override public String toString() {
+    String answer = moduleType != null ? moduleType.getName() : "modules: " + modules;
+    return overlay != null ? answer + " overlaid with " + overlay.getName() : answer;
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.guiceyfruit.support.TimingsSupport;
+
+/**
+ * Records how long the {@link InjectorManager} spends creating injectors, injecting tests and
+ * closing scopes and injectors, for each module configuration and test class, so that the slowest
+ * ones can be found.
+ *
+ * Recording is disabled unless the <code>org.guiceyfruit.testing.timings</code> system property is
+ * set to <code>true</code>; when enabled the report is printed when the JVM shuts down.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class TestTimings extends TimingsSupport<TestTimings.Phase, TestTimings.Timing> {
+  /** The system property used to enable recording of the timings */
+  public static final String TIMINGS = "org.guiceyfruit.testing.timings";
+
+  /** The parts of the test lifecycle which are timed */
+  public enum Phase {
+    CREATE_INJECTOR, INJECT_TEST, CLOSE_TEST_SCOPE, CLOSE_CLASS_SCOPE, CLOSE_INJECTOR
+  }
+
+  public TestTimings() {
+    this(Boolean.getBoolean(TIMINGS));
+  }
+
+  public TestTimings(boolean enabled) {
+    super(enabled);
+  }
+
+  /**
+   * Records the time taken by a phase since the given start time
+   *
+   * @param phase the part of the lifecycle which has completed
+   * @param subject the module configuration or test class the time is recorded against
+   * @param start the value returned from {@link #start()}
+   */
+  public void record(Phase phase, Object subject, long start) {
+    if (!isEnabled()) {
+      return;
+    }
+    getOrCreateEntry(phase, subject).add(System.nanoTime() - start);
+  }
+
+  /** Returns the recorded timings, the slowest first */
+  public List<Timing> getTimings() {
+    return getEntries();
+  }
+
+  @Override protected Timing createEntry(Phase phase, String subject) {
+    return new Timing(phase, subject);
+  }
+
+  /** Returns a report of the recorded timings for each phase, the slowest first */
+  public String report() {
+    List<Timing> list = getTimings();
+    StringBuilder builder = new StringBuilder("GuiceyFruit test timings (ms)");
+    for (Phase phase : Phase.values()) {
+      long total = 0;
+      for (Timing timing : list) {
+        if (timing.getPhase() == phase) {
+          total += timing.getTotalNanos();
+        }
+      }
+      builder.append(String.format("%n%s: %.1f total%n", phase, total / 1e6));
+      for (Timing timing : list) {
+        if (timing.getPhase() == phase) {
+          builder.append(String.format("  %10.1f %6d x %10.1f max  %s%n",
+              timing.getTotalNanos() / 1e6, timing.getCount(), timing.getMaxNanos() / 1e6,
+              timing.getSubject()));
+        }
+      }
+    }
+    return builder.toString();
+  }
+
+  /** The accumulated time of one phase for one module configuration or test class */
+  public static class Timing extends Entry<Phase> {
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public Timing(Phase phase, String subject) {
+      super(phase, subject);
+    }
+
+    @Override protected void add(long nanos) {
+      super.add(nanos);
+      long max = maxNanos.get();
+      while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+        max = maxNanos.get();
+      }
+    }
+
+    public Phase getPhase() {
+      return getKind();
+    }
+
+    public long getMaxNanos() {
+      return maxNanos.get();
+    }
+  }
+}
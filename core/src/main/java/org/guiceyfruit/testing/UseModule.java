@@ -36,4 +36,13 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Documented
 public @interface UseModule {
   Class<? extends Module> value();
+
+  /**
+   * An optional module whose bindings are layered on top of the {@link #value()} module for this
+   * test class only. The injector for the {@link #value()} module is created once and shared, and
+   * each overlay is applied as a cheap child injector of it; if the overlay rebinds keys of the
+   * shared module a separate injector is created using {@link
+   * com.google.inject.util.Modules#override(Module[])}. Defaults to no overlay.
+   */
+  Class<? extends Module> overlay() default Module.class;
 }
@@ -57,6 +57,7 @@ public class CloseableScope implements Scope, HasScopeAnnotation {
   public <T> Provider<T> scope(final Key<T> key, final Provider<T> creator) {
     return new CachingProvider<T>() {
       public T get() {
+        Map<Key<?>, Object> map = getScopeMap();
         Object o;
         synchronized (map) {
           o = map.get(key);
@@ -69,6 +70,7 @@ public class CloseableScope implements Scope, HasScopeAnnotation {
       }
 
       public T getCachedValue() {
+        Map<Key<?>, Object> map = getScopeMap();
         synchronized (map) {
           return (T) map.get(key);
         }
@@ -86,14 +88,18 @@ public class CloseableScope implements Scope, HasScopeAnnotation {
 
   /**
    * Closes all of the objects within the given injector of the specified scope
-   * and clears the scope
+   * and clears the scope. Objects from the bindings of any parent injectors are closed too as
+   * they are also cleared from the scope.
    */
   public void close(Injector injector) throws
       CloseFailedException {
     Preconditions.checkNotNull(injector, "injector");
     CloseErrorsImpl errors = new CloseErrorsImpl(this);
-    Injectors.close(injector, scopeAnnotation, errors);
+    for (Injector scoped = injector; scoped != null; scoped = scoped.getParent()) {
+      Injectors.close(scoped, scopeAnnotation, errors);
+    }
 
+    Map<Key<?>, Object> map = getScopeMap();
     synchronized (map) {
       map.clear();
     }
@@ -103,4 +109,12 @@ public class CloseableScope implements Scope, HasScopeAnnotation {
   public Class<? extends Annotation> getScopeAnnotation() {
     return scopeAnnotation;
   }
+
+  /**
+   * Returns the map of the objects currently in scope. Derived classes can override this method to
+   * keep separate objects for each thread or context; all access to the map is synchronized on it.
+   */
+  protected Map<Key<?>, Object> getScopeMap() {
+    return map;
+  }
 }
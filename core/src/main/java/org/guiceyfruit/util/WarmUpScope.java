@@ -0,0 +1,207 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.util;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+import com.google.inject.spi.CachingProvider;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.guiceyfruit.Injectors;
+import org.guiceyfruit.support.HasScopeAnnotation;
+
+/**
+ * A singleton scope whose objects are created one at a time by a background thread once {@link
+ * #start(Injector)} is called. A request for an object which has not been warmed up yet creates it
+ * straight away, and a request for an object which is being warmed up waits for it.
+ *
+ * The objects are created by {@link Scopes#SINGLETON}, which in Guice 2.0 holds a single lock for
+ * all injectors while it creates an object. While an object is being warmed up no other singleton
+ * can be created by any thread, even one which has nothing to do with this scope, so warm up
+ * suits objects which are slow to create but need not block startup, rather than moving all work
+ * off the request threads.
+ *
+ * Only the objects of the explicit bindings in this scope are warmed up ahead of use; a type
+ * annotated with the scope annotation which is bound just in time is created on its first
+ * request.
+ *
+ * To use the scope bind it and its instance in a module
+ * <pre>
+ * WarmUpScope scope = new WarmUpScope();
+ * bindScope(WarmUpScoped.class, scope);
+ * bind(WarmUpScope.class).toInstance(scope);
+ * </pre>
+ * then {@link org.guiceyfruit.Injectors#createInjector(java.util.Map,
+ * com.google.inject.Module[])} starts the warm up once the injector has been created; otherwise
+ * call {@link #start(Injector)} with the injector.
+ *
+ * The objects can be closed by passing the {@link WarmUpScoped} annotation to {@link
+ * org.guiceyfruit.Injectors#close(com.google.inject.Injector, Class)}.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class WarmUpScope implements Scope, HasScopeAnnotation {
+  private static final AtomicInteger threadCounter = new AtomicInteger(0);
+
+  private final Class<? extends Annotation> scopeAnnotation;
+  private final List<Key<?>> keys = Lists.newArrayList();
+  private final List<Future<?>> futures = Lists.newArrayList();
+  private ExecutorService executor;
+  private Injector injector;
+
+  public WarmUpScope() {
+    this(WarmUpScoped.class);
+  }
+
+  public WarmUpScope(Class<? extends Annotation> scopeAnnotation) {
+    this.scopeAnnotation = scopeAnnotation;
+  }
+
+  public <T> Provider<T> scope(final Key<T> key, final Provider<T> creator) {
+    // the objects are created by the singleton scope, so under the same lock as any singletons
+    // they depend on, rather than under a lock of our own which could deadlock with it
+    final Provider<T> singleton = Scopes.SINGLETON.scope(key, creator);
+    Provider<T> provider = new CachingProvider<T>() {
+      private volatile T value;
+
+      public T get() {
+        T answer = singleton.get();
+        value = answer;
+        return answer;
+      }
+
+      public T getCachedValue() {
+        return value;
+      }
+
+      public String toString() {
+        return "WarmUp(" + key + ")";
+      }
+    };
+    synchronized (this) {
+      keys.add(key);
+      // bindings created just in time after warm up started are warmed up straight away
+      if (executor != null) {
+        submit(key);
+      }
+    }
+    return provider;
+  }
+
+  /**
+   * Starts creating the objects in this scope which are bound in the given injector in the
+   * background. Calling this method again has no effect until the scope is stopped.
+   */
+  public synchronized void start(Injector injector) {
+    if (executor == null) {
+      this.injector = injector;
+      executor = createExecutor();
+      for (Key<?> key : keys) {
+        submit(key);
+      }
+    }
+  }
+
+  /** Stops warming up any objects which have not been created yet */
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+      injector = null;
+    }
+  }
+
+  /** Returns true if every object known to this scope has been warmed up */
+  public boolean isWarmedUp() {
+    for (Future<?> future : getFutures()) {
+      if (!future.isDone()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Waits up to the given timeout for the objects submitted so far to be warmed up
+   *
+   * @throws ExecutionException if any of the objects could not be created
+   * @throws TimeoutException if the objects were not created in time
+   */
+  public void awaitWarmUp(long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (Future<?> future : getFutures()) {
+      future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public Class<? extends Annotation> getScopeAnnotation() {
+    return scopeAnnotation;
+  }
+
+  public String toString() {
+    return "WarmUpScope(" + scopeAnnotation.getSimpleName() + ")";
+  }
+
+  /**
+   * Creates the executor used to warm up the objects, by default a single daemon thread of normal
+   * priority, as a request waiting for the singleton lock held by warm up would otherwise wait for
+   * a thread which may not be scheduled
+   */
+  protected ExecutorService createExecutor() {
+    return Executors.newSingleThreadExecutor(new ThreadFactory() {
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable,
+            "GuiceyFruit Warm Up " + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  private void submit(final Key<?> key) {
+    final Injector warmUpInjector = injector;
+    futures.add(executor.submit(new Runnable() {
+      public void run() {
+        // objects of other injectors which share this scope are only created on request
+        Binding<?> binding = Injectors.getBinding(warmUpInjector, key);
+        if (binding != null) {
+          binding.getProvider().get();
+        }
+      }
+    }));
+  }
+
+  private synchronized List<Future<?>> getFutures() {
+    return Lists.newArrayList(futures);
+  }
+}
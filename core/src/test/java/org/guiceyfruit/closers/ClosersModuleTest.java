@@ -0,0 +1,117 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.closers;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import junit.framework.TestCase;
+import org.guiceyfruit.support.CloseTimeoutException;
+import org.guiceyfruit.testing.TestScoped;
+import org.guiceyfruit.util.CloseableScope;
+
+/** @version $Revision: 1.1 $ */
+public class ClosersModuleTest extends TestCase {
+
+  public void testScopedResourcesAreReleased() throws Exception {
+    final CloseableScope scope = new CloseableScope(TestScoped.class);
+    Injector injector = Guice.createInjector(new ClosersModule(), new AbstractModule() {
+      protected void configure() {
+        bindScope(TestScoped.class, scope);
+        bind(MyStream.class).in(TestScoped.class);
+        bind(ExecutorService.class).toProvider(new Provider<ExecutorService>() {
+          public ExecutorService get() {
+            return Executors.newSingleThreadExecutor();
+          }
+        }).in(TestScoped.class);
+      }
+    });
+
+    MyStream stream = injector.getInstance(MyStream.class);
+    ExecutorService executor = injector.getInstance(ExecutorService.class);
+    assertFalse("stream closed", stream.closeCount > 0);
+    assertFalse("executor shut down", executor.isShutdown());
+
+    scope.close(injector);
+
+    assertEquals("stream close count", 1, stream.closeCount);
+    assertTrue("executor terminated", executor.isTerminated());
+  }
+
+  public void testExecutorShutdownIsBoundedByOneTimeout() throws Throwable {
+    ExecutorServiceCloser closer = new ExecutorServiceCloser();
+    closer.setShutdownTimeout(300);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    final AtomicBoolean stop = new AtomicBoolean(false);
+    executor.submit(new Runnable() {
+      public void run() {
+        // lets ignore interrupts so the executor never terminates
+        while (!stop.get()) {
+          Thread.yield();
+        }
+      }
+    });
+
+    long start = System.currentTimeMillis();
+    try {
+      closer.close(executor);
+      fail("Should have timed out");
+    }
+    catch (CloseTimeoutException e) {
+      long elapsed = System.currentTimeMillis() - start;
+      assertTrue("took too long: " + elapsed, elapsed < 550);
+    }
+    finally {
+      stop.set(true);
+    }
+  }
+
+  public void testExecutorWhoseTasksStopOnInterruptIsClosed() throws Throwable {
+    ExecutorServiceCloser closer = new ExecutorServiceCloser();
+    closer.setShutdownTimeout(300);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.submit(new Runnable() {
+      public void run() {
+        try {
+          Thread.sleep(60000);
+        }
+        catch (InterruptedException e) {
+          // lets stop straight away
+        }
+      }
+    });
+
+    closer.close(executor);
+    assertTrue("terminated", executor.isTerminated());
+  }
+
+  public static class MyStream implements Closeable {
+    public int closeCount;
+
+    public void close() throws IOException {
+      closeCount++;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.jpa;
+
+import com.google.common.collect.Lists;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import junit.framework.TestCase;
+import org.guiceyfruit.jpa.support.BatchListener;
+import org.guiceyfruit.jpa.support.BatchStatistics;
+import org.guiceyfruit.jpa.support.EntityManagerBatcher;
+import org.guiceyfruit.jpa.support.EntitySizeEstimator;
+
+/** @version $Revision: 1.1 $ */
+public class BatchingTest extends TestCase {
+  protected List<String> calls = Lists.newArrayList();
+  protected List<BatchStatistics> batches = Lists.newArrayList();
+  protected AtomicInteger resolved = new AtomicInteger(0);
+  protected Map<String, Provider<EntityManager>> namedEntityManagers = Collections.emptyMap();
+
+  public void testFlushesEveryBatchSizeOperations() throws Exception {
+    EntityManagerBatcher batcher = createInjector("3", "0").getInstance(EntityManagerBatcher.class);
+    for (int i = 0; i < 7; i++) {
+      batcher.persist("entity" + i);
+    }
+    assertEquals("batches", 2, batcher.getBatchCount());
+    assertEquals("pending", 1, batcher.getPendingOperations());
+
+    batcher.flush();
+    assertEquals("batches", 3, batcher.getBatchCount());
+    assertEquals("operations", 7, batcher.getOperationCount());
+    assertEquals("flushes", 3, count("flush"));
+    assertEquals("clears", 3, count("clear"));
+    assertEquals("listener batches", 3, batches.size());
+    assertEquals("last batch operations", 1, batcher.getLastBatch().getOperations());
+  }
+
+  public void testFlushesWhenEstimatedSizeReached() throws Exception {
+    EntityManagerBatcher batcher = createInjector("0", "100")
+        .getInstance(EntityManagerBatcher.class);
+    for (int i = 0; i < 5; i++) {
+      batcher.merge("entity" + i);
+    }
+    assertEquals("batches", 1, batcher.getBatchCount());
+    assertEquals("estimated size", 120, batches.get(0).getEstimatedSize());
+    assertEquals("operations", 3, batches.get(0).getOperations());
+
+    batcher.flush();
+    batcher.flush();
+    assertEquals("batches", 2, batcher.getBatchCount());
+    assertEquals("flushes", 2, count("flush"));
+  }
+
+  public void testEntityManagerIsResolvedForEachBatch() throws Exception {
+    EntityManagerBatcher batcher = createInjector("2", "0").getInstance(EntityManagerBatcher.class);
+    for (int i = 0; i < 5; i++) {
+      batcher.persist("entity" + i);
+    }
+    batcher.flush();
+
+    assertEquals("batches", 3, batcher.getBatchCount());
+    assertEquals("entity managers resolved", 3, resolved.get());
+  }
+
+  public void testUnitNameSelectsNamedEntityManager() throws Exception {
+    namedEntityManagers = Collections.singletonMap("orders", new Provider<EntityManager>() {
+      public EntityManager get() {
+        return createEntityManager("orders:");
+      }
+    });
+    EntityManagerBatcher batcher = createInjector("0", "0").getInstance(EntityManagerBatcher.class);
+    batcher.setUnitName("orders");
+    batcher.persist("entity");
+    batcher.flush();
+
+    assertEquals("calls", Lists.newArrayList("orders:persist", "orders:flush", "orders:clear"),
+        calls);
+    assertEquals("default entity managers resolved", 0, resolved.get());
+  }
+
+  protected EntityManager createEntityManager(final String prefix) {
+    return (EntityManager) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class[] { EntityManager.class }, new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            calls.add(prefix + method.getName());
+            return method.getName().equals("merge") ? args[0] : null;
+          }
+        });
+  }
+
+  protected Injector createInjector(final String batchSize, final String batchBytes) {
+    return Guice.createInjector(new JpaModule() {
+      @Override
+      protected void configure() {
+        super.configure();
+
+        bind(EntityManager.class).toProvider(new Provider<EntityManager>() {
+          public EntityManager get() {
+            resolved.incrementAndGet();
+            return createEntityManager("");
+          }
+        });
+        bind(new TypeLiteral<Map<String, Provider<EntityManager>>>() {})
+            .toInstance(namedEntityManagers);
+        bindConstant().annotatedWith(Names.named(EntityManagerBatcher.BATCH_SIZE)).to(batchSize);
+        bindConstant().annotatedWith(Names.named(EntityManagerBatcher.BATCH_BYTES)).to(batchBytes);
+        bind(EntitySizeEstimator.class).toInstance(new EntitySizeEstimator() {
+          public long estimateSize(Object entity) {
+            return 40;
+          }
+        });
+        bind(BatchListener.class).toInstance(new BatchListener() {
+          public void batchCompleted(BatchStatistics statistics) {
+            batches.add(statistics);
+          }
+        });
+      }
+    });
+  }
+
+  protected int count(String methodName) {
+    int answer = 0;
+    for (String call : calls) {
+      if (call.equals(methodName)) {
+        answer++;
+      }
+    }
+    return answer;
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.jsr250;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import junit.framework.TestCase;
+
+/** @version $Revision: 1.1 $ */
+public class AsyncPostConstructTest extends TestCase {
+  protected static CountDownLatch latch;
+
+  public void testAsyncPostConstructDoesNotBlockInjection() throws Exception {
+    latch = new CountDownLatch(1);
+    Injector injector = Guice.createInjector(new Jsr250Module());
+    PostConstructBarrier barrier = injector.getInstance(PostConstructBarrier.class);
+
+    SlowBean bean = injector.getInstance(SlowBean.class);
+    assertTrue("bean.started", bean.started);
+    assertFalse("barrier.isReady", barrier.isReady(bean));
+
+    latch.countDown();
+    barrier.await(bean);
+    assertTrue("barrier.isReady", barrier.isReady(bean));
+    assertEquals("bean.loaded", "loaded", bean.loaded);
+
+    barrier.awaitAll(5, TimeUnit.SECONDS);
+    assertTrue("other bean is ready", barrier.isReady(new Object()));
+  }
+
+  public void testAsyncPostConstructFailureIsReported() throws Exception {
+    Injector injector = Guice.createInjector(new Jsr250Module());
+    PostConstructBarrier barrier = injector.getInstance(PostConstructBarrier.class);
+
+    final List<LogRecord> records = Collections.synchronizedList(new ArrayList<LogRecord>());
+    Handler handler = new Handler() {
+      public void publish(LogRecord record) {
+        records.add(record);
+      }
+
+      public void flush() {
+      }
+
+      public void close() {
+      }
+    };
+    Logger logger = Logger.getLogger(PostConstructBarrier.class.getName());
+    logger.addHandler(handler);
+    try {
+      FailingBean bean = injector.getInstance(FailingBean.class);
+      try {
+        barrier.getFuture(bean).get(5, TimeUnit.SECONDS);
+        fail("Should have thrown an ExecutionException");
+      }
+      catch (ExecutionException e) {
+        assertTrue("cause " + e.getCause(), e.getCause() instanceof IllegalStateException);
+      }
+    }
+    finally {
+      logger.removeHandler(handler);
+    }
+    assertEquals("logged failures", 1, records.size());
+    assertTrue("logged cause", records.get(0).getThrown() instanceof IllegalStateException);
+  }
+
+  public void testObjectsAreTrackedByIdentity() throws Exception {
+    latch = new CountDownLatch(1);
+    Injector injector = Guice.createInjector(new Jsr250Module());
+    PostConstructBarrier barrier = injector.getInstance(PostConstructBarrier.class);
+
+    EqualSlowBean slow = injector.getInstance(EqualSlowBean.class);
+    EqualBean other = new EqualBean();
+    assertEquals("beans are equal", slow, other);
+    assertTrue("other is ready", barrier.isReady(other));
+    assertFalse("slow is ready", barrier.isReady(slow));
+
+    latch.countDown();
+    barrier.await(slow);
+    assertTrue("slow is ready", barrier.isReady(slow));
+  }
+
+  public void testSubmitAfterCloseIsRejected() throws Exception {
+    Injector injector = Guice.createInjector(new Jsr250Module());
+    PostConstructBarrier barrier = injector.getInstance(PostConstructBarrier.class);
+    barrier.close();
+    try {
+      barrier.submit(new FailingBean(), FailingBean.class.getMethod("load"));
+      fail("Should have thrown an IllegalStateException");
+    }
+    catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  public void testMethodHandlerIsASingleton() throws Exception {
+    Injector injector = Guice.createInjector(new Jsr250Module());
+    assertSame(injector.getInstance(PostConstructMethodHandler.class),
+        injector.getInstance(PostConstructMethodHandler.class));
+  }
+
+  public static class SlowBean {
+    boolean started;
+    volatile String loaded;
+
+    @PostConstruct
+    public void start() {
+      started = true;
+    }
+
+    @PostConstruct
+    @AsyncPostConstruct
+    public void load() throws InterruptedException {
+      latch.await();
+      loaded = "loaded";
+    }
+  }
+
+  public static class EqualBean {
+    public void load() {
+    }
+
+    @Override public boolean equals(Object obj) {
+      return obj instanceof EqualBean;
+    }
+
+    @Override public int hashCode() {
+      return 1;
+    }
+  }
+
+  public static class EqualSlowBean extends EqualBean {
+    @Override @PostConstruct @AsyncPostConstruct
+    public void load() {
+      try {
+        latch.await();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  public static class FailingBean {
+    @PostConstruct
+    @AsyncPostConstruct
+    public void load() {
+      throw new IllegalStateException("Could not load");
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.jsr250;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Resource;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import junit.framework.TestCase;
+
+/** @version $Revision: 1.1 $ */
+public class LazyResourceTest extends TestCase {
+  protected final AtomicInteger created = new AtomicInteger(0);
+
+  public void testProviderAndLazyResourcesAreLookedUpOnFirstUse() throws Exception {
+    Injector injector = Guice.createInjector(new Jsr250Module() {
+      protected void configure() {
+        super.configure();
+
+        bind(Cheese.class, "cheese").toProvider(new Provider<Cheese>() {
+          public Cheese get() {
+            final int id = created.incrementAndGet();
+            return new Cheese() {
+              public String getName() {
+                return "Edam " + id;
+              }
+            };
+          }
+        });
+      }
+    });
+
+    MyBean bean = injector.getInstance(MyBean.class);
+    assertNotNull("bean.cheeseProvider", bean.cheeseProvider);
+    assertNotNull("bean.lazyCheese", bean.lazyCheese);
+    assertEquals("created", 0, created.get());
+
+    assertEquals("Edam 1", bean.lazyCheese.getName());
+    assertEquals("Edam 1", bean.lazyCheese.getName());
+    assertEquals("created", 1, created.get());
+
+    assertEquals("Edam 2", bean.cheeseProvider.get().getName());
+    assertEquals("Edam 3", bean.cheeseProvider.get().getName());
+    assertEquals("created", 3, created.get());
+  }
+
+  public void testConcurrentResolutionLooksUpJndiSerially() throws Exception {
+    final CountingContext context = new CountingContext();
+    final Injector injector = Guice.createInjector(new Jsr250Module() {
+      protected void configure() {
+        super.configure();
+
+        bind(Context.class).toInstance(context);
+      }
+    });
+
+    final JndiBean shared = injector.getInstance(JndiBean.class);
+    int threads = 8;
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+    List<Thread> list = new ArrayList<Thread>();
+    for (int i = 0; i < threads; i++) {
+      Thread thread = new Thread() {
+        public void run() {
+          try {
+            start.await();
+            assertEquals("shared", "Gouda", shared.cheeseProvider.get().getName());
+            JndiBean own = injector.getInstance(JndiBean.class);
+            assertEquals("own", "Gouda", own.cheeseProvider.get().getName());
+          }
+          catch (Throwable e) {
+            failures.add(e);
+          }
+        }
+      };
+      thread.start();
+      list.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : list) {
+      thread.join(10000);
+    }
+
+    assertEquals("failures", Collections.emptyList(), failures);
+    assertFalse("concurrent lookups", context.overlapped);
+    assertEquals("lookups", threads + 1, context.lookups.get());
+  }
+
+  /** A context which records whether lookups overlap */
+  public static class CountingContext extends InitialContext {
+    final AtomicInteger lookups = new AtomicInteger(0);
+    final AtomicInteger active = new AtomicInteger(0);
+    volatile boolean overlapped;
+
+    public CountingContext() throws NamingException {
+      super(true);
+    }
+
+    @Override public Object lookup(String name) throws NamingException {
+      if (active.incrementAndGet() > 1) {
+        overlapped = true;
+      }
+      try {
+        lookups.incrementAndGet();
+        Thread.sleep(5);
+        return new Cheese() {
+          public String getName() {
+            return "Gouda";
+          }
+        };
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new NamingException("interrupted");
+      }
+      finally {
+        active.decrementAndGet();
+      }
+    }
+  }
+
+  public static class JndiBean {
+    @Resource(name = "gouda")
+    Provider<Cheese> cheeseProvider;
+  }
+
+  public static class MyBean {
+    @Resource(name = "cheese")
+    Provider<Cheese> cheeseProvider;
+
+    @Resource(name = "cheese")
+    @LazyResource
+    Cheese lazyCheese;
+  }
+
+  public interface Cheese {
+    String getName();
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.TypeLiteral;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Resource;
+import junit.framework.TestCase;
+
+/** @version $Revision: 1.1 $ */
+public class AnnotationMemberProviderCacheTest extends TestCase {
+  protected static final AtomicInteger created = new AtomicInteger(0);
+
+  public void testMemberProviderIsCreatedOncePerInjector() throws Exception {
+    created.set(0);
+    GuiceyFruitModule module = new GuiceyFruitModule() {
+      protected void configure() {
+        super.configure();
+
+        bindAnnotationInjector(Resource.class, CountingMemberProvider.class);
+      }
+    };
+    Injector injector = Guice.createInjector(module);
+    for (int i = 0; i < 3; i++) {
+      MyBean bean = injector.getInstance(MyBean.class);
+      assertEquals("bean.name", "name", bean.name);
+      assertEquals("bean.other", "other", bean.other);
+      assertEquals("bean.value", "setValue", bean.value);
+      assertEquals("created", 1, created.get());
+    }
+    injector.getInstance(AnotherBean.class);
+    assertEquals("created", 1, created.get());
+
+    Guice.createInjector(module).getInstance(MyBean.class);
+    assertEquals("created", 2, created.get());
+  }
+
+  public void testExplicitScopeOfMemberProviderIsRespected() throws Exception {
+    created.set(0);
+    Injector injector = Guice.createInjector(new GuiceyFruitModule() {
+      protected void configure() {
+        super.configure();
+
+        bindAnnotationInjector(Resource.class, CountingMemberProvider.class);
+        bind(CountingMemberProvider.class).in(new Scope() {
+          public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+            return unscoped;
+          }
+        });
+      }
+    });
+    injector.getInstance(AnotherBean.class);
+    injector.getInstance(AnotherBean.class);
+    assertEquals("created", 2, created.get());
+  }
+
+  public static class CountingMemberProvider extends AnnotationMemberProviderSupport<Resource> {
+    public CountingMemberProvider() {
+      created.incrementAndGet();
+    }
+
+    protected Object provide(Resource annotation, Member member, TypeLiteral<?> requiredType,
+        Class<?> memberType, Annotation[] annotations) {
+      return member.getName();
+    }
+
+    public boolean isNullParameterAllowed(Resource annotation, Method method,
+        Class<?> parameterType, int parameterIndex) {
+      return false;
+    }
+  }
+
+  public static class MyBean {
+    @Resource
+    String name;
+
+    @Resource
+    String other;
+
+    String value;
+
+    @Resource
+    public void setValue(String value) {
+      this.value = value;
+    }
+  }
+
+  public static class AnotherBean {
+    @Resource
+    String name;
+  }
+}
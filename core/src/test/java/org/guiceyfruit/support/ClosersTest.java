@@ -0,0 +1,272 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import junit.framework.TestCase;
+import org.guiceyfruit.support.internal.CloseErrorsImpl;
+
+/** @version $Revision: 1.1 $ */
+public class ClosersTest extends TestCase {
+  protected List<Object> closed = Lists.newArrayList();
+  protected List<Throwable> failures = Lists.newArrayList();
+  protected CountDownLatch hang = new CountDownLatch(1);
+
+  protected CloseErrors errors = new CloseErrors() {
+    public void closeError(Object key, Object object, Throwable cause) {
+      failures.add(cause);
+    }
+
+    public void throwIfNecessary() throws CloseFailedException {
+    }
+  };
+
+  @Override
+  protected void tearDown() throws Exception {
+    hang.countDown();
+  }
+
+  public void testErrorsAreReported() throws Exception {
+    Closer failing = new Closer() {
+      public void close(Object object) throws Throwable {
+        throw new AssertionError("boom");
+      }
+    };
+    Closers.close("a", "value", failing, errors);
+
+    assertEquals("failures", 1, failures.size());
+    assertTrue("error reported", failures.get(0) instanceof AssertionError);
+  }
+
+  public void testHungCloserTimesOutAndOtherClosersStillRun() throws Exception {
+    ClosePolicy policy = new ClosePolicy();
+    policy.setCloserTimeout(100, TimeUnit.MILLISECONDS);
+
+    long start = System.currentTimeMillis();
+    Closers.close(objects("a", "b"), closers(new HangingCloser("a"), new RecordingCloser()),
+        errors, policy);
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertEquals("closed", 2, closed.size());
+    assertEquals("failures", 1, failures.size());
+    assertTrue("timeout reported", failures.get(0) instanceof CloseTimeoutException);
+    assertTrue("took too long: " + elapsed, elapsed < 5000);
+  }
+
+  public void testOverallTimeoutWithParallelClose() throws Exception {
+    ClosePolicy policy = new ClosePolicy();
+    policy.setThreads(4);
+    policy.setTimeout(200, TimeUnit.MILLISECONDS);
+
+    Closers.close(objects("a", "b", "c"), closers(new HangingCloser("b"), new RecordingCloser()),
+        errors, policy);
+
+    assertEquals("closed", 2, closed.size());
+    assertEquals("failures", 1, failures.size());
+    assertTrue("timeout reported", failures.get(0) instanceof CloseTimeoutException);
+  }
+
+  public void testInterruptedCloserIsReportedAndOtherObjectsStillClosed() throws Exception {
+    Closer interrupted = new Closer() {
+      public void close(Object object) throws Throwable {
+        if ("a".equals(object)) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedException("interrupted closing " + object);
+        }
+        // lets check we are not still interrupted when closing the other objects
+        Thread.sleep(1);
+      }
+    };
+    try {
+      Closers.close(objects("a", "b", "c"), closers(interrupted, new RecordingCloser()), errors,
+          new ClosePolicy());
+
+      assertEquals("closed", Lists.<Object>newArrayList("a", "b", "c"), closed);
+      assertEquals("failures", 1, failures.size());
+      assertTrue("interrupt reported", failures.get(0) instanceof InterruptedException);
+      assertTrue("interrupt restored", Thread.currentThread().isInterrupted());
+    }
+    finally {
+      Thread.interrupted();
+    }
+  }
+
+  public void testObjectsLeftWhenInterruptedDuringParallelCloseAreReportedAsInterrupted()
+      throws Exception {
+    ClosePolicy policy = new ClosePolicy();
+    policy.setTimeout(10, TimeUnit.SECONDS);
+    try {
+      Thread.currentThread().interrupt();
+      Closers.close(objects("a", "b", "c"), closers(new HangingCloser("a")), errors, policy);
+
+      assertEquals("failures", 3, failures.size());
+      for (Throwable failure : failures) {
+        assertTrue("interrupt reported: " + failure, failure instanceof InterruptedException);
+      }
+      assertTrue("interrupt restored", Thread.currentThread().isInterrupted());
+    }
+    finally {
+      Thread.interrupted();
+    }
+  }
+
+  public void testTypedClosersOnlySeeObjectsTheyHandle() throws Exception {
+    final List<Class<?>> typesChecked = Lists.newArrayList();
+    TypedCloser integerCloser = new TypedCloser() {
+      public boolean canClose(Class<?> type) {
+        typesChecked.add(type);
+        return Integer.class.isAssignableFrom(type);
+      }
+
+      public void close(Object object) throws Throwable {
+        closed.add(object);
+      }
+    };
+    Map<Object, Object> objects = Maps.newLinkedHashMap();
+    objects.put("a", "a");
+    objects.put("b", 1);
+    objects.put("c", "c");
+    objects.put("d", 2);
+
+    Closers.close(objects, closers(integerCloser), errors, new ClosePolicy());
+
+    assertEquals("closed", Lists.<Object>newArrayList(1, 2), closed);
+    assertEquals("types checked", 2, typesChecked.size());
+    assertTrue("untyped closer handles anything",
+        CompositeCloser.canClose(new RecordingCloser(), Object.class));
+  }
+
+  public void testFailingTypeCheckIsReported() throws Exception {
+    TypedCloser failing = new TypedCloser() {
+      public boolean canClose(Class<?> type) {
+        if (Integer.class.equals(type)) {
+          throw new IllegalArgumentException("cannot check " + type);
+        }
+        return true;
+      }
+
+      public void close(Object object) throws Throwable {
+        closed.add(object);
+      }
+    };
+    Map<Object, Object> objects = Maps.newLinkedHashMap();
+    objects.put("a", "a");
+    objects.put("b", 1);
+    objects.put("c", "c");
+
+    Closers.close(objects, closers(failing), errors, new ClosePolicy());
+
+    assertEquals("closed", Lists.<Object>newArrayList("a", "c"), closed);
+    assertEquals("failures", 1, failures.size());
+    assertTrue("error reported", failures.get(0) instanceof IllegalArgumentException);
+  }
+
+  public void testCloseFailuresAreAggregatedByCause() throws Exception {
+    CloseErrorsImpl closeErrors = new CloseErrorsImpl(this);
+    for (int i = 0; i < 25; i++) {
+      Throwable cause = i % 5 == 0
+          ? new CloseTimeoutException("slow", 10) : new IllegalStateException("down " + i);
+      closeErrors.closeError("key:" + i, "value" + i, cause);
+    }
+
+    try {
+      closeErrors.throwIfNecessary();
+      fail("should have thrown");
+    } catch (CloseFailedException e) {
+      assertEquals("close errors", 25, e.getCloseErrors().size());
+      assertEquals("messages", 25, e.getMessages().size());
+      assertEquals("key", "key:3", e.getCloseErrors().get(3).getKey());
+
+      String message = e.getMessage();
+      assertTrue(message, message.contains("20 x " + IllegalStateException.class.getName()));
+      assertTrue(message, message.contains("5 x " + CloseTimeoutException.class.getName()));
+      assertTrue(message, message.contains("10) Failed to close object value9 with key key:9"));
+      assertFalse(message, message.contains("key:10"));
+      assertTrue(message, message.contains("... and 15 more"));
+    }
+  }
+
+  public void testCloseFailedExceptionIsSerializedWithItsMessage() throws Exception {
+    // neither the source nor the object which failed to close is serializable
+    CloseErrorsImpl closeErrors = new CloseErrorsImpl(this);
+    closeErrors.closeError("key:a", new Object(), new IllegalStateException("down"));
+    CloseFailedException exception = null;
+    try {
+      closeErrors.throwIfNecessary();
+      fail("should have thrown");
+    } catch (CloseFailedException e) {
+      exception = e;
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(exception);
+    out.close();
+    CloseFailedException copy = (CloseFailedException) new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+    assertEquals("message", exception.getMessage(), copy.getMessage());
+    assertTrue("cause", copy.getCause() instanceof IllegalStateException);
+    assertTrue("close errors", copy.getCloseErrors().isEmpty());
+  }
+
+  protected Map<Object, Object> objects(String... values) {
+    Map<Object, Object> answer = Maps.newLinkedHashMap();
+    for (String value : values) {
+      answer.put("key:" + value, value);
+    }
+    return answer;
+  }
+
+  protected Collection<Closer> closers(Closer... closers) {
+    return Lists.newArrayList(closers);
+  }
+
+  protected class HangingCloser implements Closer {
+    private final Object hangOn;
+
+    public HangingCloser(Object hangOn) {
+      this.hangOn = hangOn;
+    }
+
+    public void close(Object object) throws Throwable {
+      if (hangOn.equals(object)) {
+        hang.await();
+      }
+    }
+  }
+
+  protected class RecordingCloser implements Closer {
+    public void close(Object object) throws Throwable {
+      synchronized (closed) {
+        closed.add(object);
+      }
+    }
+  }
+}
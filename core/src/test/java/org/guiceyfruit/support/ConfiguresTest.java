@@ -0,0 +1,89 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import junit.framework.TestCase;
+import org.guiceyfruit.Configures;
+import org.guiceyfruit.support.ListenerStatistics.Listener;
+import org.guiceyfruit.support.ListenerStatistics.Statistic;
+
+/** @version $Revision: 1.1 $ */
+public class ConfiguresTest extends TestCase {
+
+  public void testAllConfiguresMethodsForATypeAreInvoked() throws Exception {
+    ListenerStatistics statistics = new ListenerStatistics(true);
+    MyModule module = new MyModule();
+    module.setListenerStatistics(statistics);
+    Injector injector = Guice.createInjector(module);
+
+    Cheese cheese = injector.getInstance(Cheese.class);
+    assertEquals("cheese.name", "Edam", cheese.name);
+    assertEquals("cheese.age", 3, cheese.age);
+
+    Wine wine = injector.getInstance(Wine.class);
+    assertEquals("wine.name", "Rioja", wine.name);
+
+    Statistic statistic = statistics.getStatistic(Listener.CONFIGURES, MyModule.class);
+    assertNotNull("configures statistic", statistic);
+    assertEquals("types heard", 2, statistic.getTypesHeard());
+    assertEquals("members registered", 3, statistic.getMembersRegistered());
+  }
+
+  public void testConfiguresMethodWithoutArgumentsFails() throws Exception {
+    try {
+      Guice.createInjector(new GuiceyFruitModule() {
+        @Configures
+        public void configureNothing() {
+        }
+      });
+      fail("Should have failed");
+    }
+    catch (RuntimeException e) {
+      // expected
+    }
+  }
+
+  public static class MyModule extends GuiceyFruitModule {
+    @Configures
+    public void configureName(Cheese cheese) {
+      cheese.name = "Edam";
+    }
+
+    @Configures
+    public void configureAge(Cheese cheese) {
+      cheese.age = 3;
+    }
+
+    @Configures
+    public void configureWine(Wine wine) {
+      wine.name = "Rioja";
+    }
+  }
+
+  public static class Cheese {
+    String name;
+    int age;
+  }
+
+  public static class Wine {
+    String name;
+  }
+}
@@ -0,0 +1,65 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.inject.Provider;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/** @version $Revision: 1.1 $ */
+public class LazyProvidersTest extends TestCase {
+  protected final AtomicInteger created = new AtomicInteger(0);
+
+  protected Provider<Callable<String>> provider = new Provider<Callable<String>>() {
+    public Callable<String> get() {
+      final int id = created.incrementAndGet();
+      return new Callable<String>() {
+        public String call() {
+          return "callable " + id;
+        }
+      };
+    }
+  };
+
+  public void testProxyCreatesObjectOnFirstUse() throws Exception {
+    Callable<String> proxy = LazyProviders.newProxy(Callable.class,
+        LazyProviders.memoize(provider));
+    assertEquals("created", 0, created.get());
+
+    assertEquals("callable 1", proxy.call());
+    assertEquals("callable 1", proxy.call());
+    assertEquals("created", 1, created.get());
+  }
+
+  public void testAdaptProviderToAnotherProviderInterface() throws Exception {
+    Getter getter = (Getter) LazyProviders.adaptProvider(Getter.class, provider);
+    assertEquals("created", 0, created.get());
+
+    getter.get();
+    getter.get();
+    assertEquals("created", 2, created.get());
+    assertTrue("provider type", LazyProviders.isProviderType(Provider.class));
+  }
+
+  /** Looks like a JSR 330 provider */
+  public interface Getter {
+    Object get();
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.inject.Guice;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import junit.framework.TestCase;
+import org.guiceyfruit.jsr250.Jsr250Module;
+import org.guiceyfruit.support.ListenerStatistics.Listener;
+import org.guiceyfruit.support.ListenerStatistics.Statistic;
+
+/** @version $Revision: 1.1 $ */
+public class ListenerStatisticsTest extends TestCase {
+
+  public void testRecordsTypesHeardAndMembersRegistered() throws Exception {
+    ListenerStatistics statistics = new ListenerStatistics(true);
+    Jsr250Module module = new Jsr250Module() {
+      protected void configure() {
+        super.configure();
+
+        bindInstance("name", "James");
+        bind(MyBean.class);
+      }
+    };
+    module.setListenerStatistics(statistics);
+    Guice.createInjector(module).getInstance(MyBean.class);
+
+    Statistic resource = statistics.getStatistic(Listener.ANNOTATION_INJECTOR, Resource.class);
+    assertNotNull("resource statistic", resource);
+    assertTrue("types heard", resource.getTypesHeard() >= 1);
+    assertEquals("members registered", 2, resource.getMembersRegistered());
+
+    Statistic postConstruct = statistics.getStatistic(Listener.METHOD_HANDLER,
+        PostConstruct.class);
+    assertNotNull("post construct statistic", postConstruct);
+    assertEquals("members registered", 1, postConstruct.getMembersRegistered());
+
+    Statistic dispatcher = statistics.getStatistic(Listener.ANNOTATION_DISPATCHER,
+        module.getClass());
+    assertNotNull("dispatcher statistic", dispatcher);
+    assertEquals("members registered", 3, dispatcher.getMembersRegistered());
+
+    String report = statistics.report();
+    assertTrue(report, report.contains(Resource.class.getName()));
+  }
+
+  public void testCountedListenersAreReportedWithoutTime() throws Exception {
+    ListenerStatistics statistics = new ListenerStatistics(true);
+    statistics.record(Listener.ANNOTATION_DISPATCHER, MyBean.class, 1, statistics.start());
+    statistics.count(Listener.ANNOTATION_INJECTOR, Resource.class, 1);
+
+    assertTrue("dispatcher timed",
+        statistics.getStatistic(Listener.ANNOTATION_DISPATCHER, MyBean.class).isTimed());
+    Statistic resource = statistics.getStatistic(Listener.ANNOTATION_INJECTOR, Resource.class);
+    assertFalse("resource timed", resource.isTimed());
+    assertEquals("types heard", 1, resource.getTypesHeard());
+
+    String report = statistics.report();
+    assertTrue(report, report.contains("- the time is included in the ANNOTATION_DISPATCHER"));
+  }
+
+  public void testDisabledStatisticsRecordNothing() throws Exception {
+    ListenerStatistics statistics = new ListenerStatistics(false);
+    statistics.record(Listener.ANNOTATION_INJECTOR, Resource.class, 1, statistics.start());
+
+    assertTrue("statistics", statistics.getStatistics().isEmpty());
+  }
+
+  public static class MyBean {
+    @Resource
+    String name;
+
+    String other;
+
+    @Resource(name = "name")
+    public void setOther(String other) {
+      this.other = other;
+    }
+
+    @PostConstruct
+    public void start() {
+    }
+  }
+}
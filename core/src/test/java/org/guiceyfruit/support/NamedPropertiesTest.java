@@ -0,0 +1,156 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.support;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provides;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Resource;
+import junit.framework.TestCase;
+import org.guiceyfruit.Injectors;
+import org.guiceyfruit.jsr250.Jsr250Module;
+
+/** @version $Revision: 1.1 $ */
+public class NamedPropertiesTest extends TestCase {
+  protected Map<String, String> environment = new HashMap<String, String>();
+
+  protected void setUp() throws Exception {
+    environment.put("app.name", "cheese");
+    environment.put("app.size", "3");
+    environment.put("db.url", "jdbc:foo");
+    environment.put("user.home", "/home/foo");
+    environment.put("greeting", "hello");
+  }
+
+  public void testAllPropertiesAreBoundByDefault() throws Exception {
+    Injector injector = Injectors.createInjector(environment);
+
+    assertBound(injector, "app.name", true);
+    assertBound(injector, "db.url", true);
+    assertBound(injector, "user.home", true);
+  }
+
+  public void testPrefixes() throws Exception {
+    environment.put(Injectors.PROPERTY_PREFIXES, "app., db.url");
+    Injector injector = Injectors.createInjector(environment);
+
+    assertBound(injector, "app.name", true);
+    assertBound(injector, "app.size", true);
+    assertBound(injector, "db.url", true);
+    assertBound(injector, "user.home", false);
+  }
+
+  public void testScannedPropertiesOnlyBindsReferencedNames() throws Exception {
+    environment.put(Injectors.SCANNED_PROPERTIES, "true");
+    Injector injector = Injectors.createInjector(environment, new AbstractModule() {
+      protected void configure() {
+        bind(MyBean.class);
+      }
+    });
+
+    MyBean bean = injector.getInstance(MyBean.class);
+    assertEquals("bean.name", "cheese", bean.name);
+    assertEquals("bean.url", "jdbc:foo", bean.other.url);
+
+    assertBound(injector, "app.name", true);
+    assertBound(injector, "db.url", true);
+    assertBound(injector, "app.size", false);
+    assertBound(injector, "user.home", false);
+    assertBound(injector, "greeting", false);
+  }
+
+  public void testScannedPropertiesFindResourceNames() throws Exception {
+    environment.put(Injectors.SCANNED_PROPERTIES, "true");
+    Injector injector = Injectors.createInjector(environment, new Jsr250Module() {
+      protected void configure() {
+        super.configure();
+        bind(MyResourceBean.class);
+      }
+    });
+
+    MyResourceBean bean = injector.getInstance(MyResourceBean.class);
+    assertEquals("bean.greeting", "hello", bean.greeting);
+    assertEquals("bean.size", "3", bean.size);
+
+    assertBound(injector, "greeting", true);
+    assertBound(injector, "app.size", true);
+    assertBound(injector, "app.name", false);
+  }
+
+  public void testScannedPropertiesFindProvidesMethodParameters() throws Exception {
+    environment.put(Injectors.SCANNED_PROPERTIES, "true");
+    final AtomicInteger configured = new AtomicInteger(0);
+    Injector injector = Injectors.createInjector(environment, new AbstractModule() {
+      protected void configure() {
+        configured.incrementAndGet();
+      }
+
+      @Provides
+      Other provideOther(@Named("db.url") String url) {
+        Other answer = new Other();
+        answer.url = url;
+        return answer;
+      }
+    });
+
+    assertEquals("other.url", "jdbc:foo", injector.getInstance(Other.class).url);
+    assertEquals("configured", 1, configured.get());
+
+    assertBound(injector, "db.url", true);
+    assertBound(injector, "app.name", false);
+  }
+
+  protected void assertBound(Injector injector, String name, boolean expected) {
+    boolean bound = Injectors.hasBinding(injector, Key.get(String.class, Names.named(name)));
+    assertEquals("binding of " + name, expected, bound);
+  }
+
+  public static class MyBean {
+    final String name;
+
+    @Inject
+    Other other;
+
+    @Inject
+    public MyBean(@Named("app.name") String name) {
+      this.name = name;
+    }
+  }
+
+  public static class MyResourceBean {
+    @Resource
+    String greeting;
+
+    @Resource(name = "app.size")
+    String size;
+  }
+
+  public static class Other {
+    @Inject
+    @Named("db.url")
+    String url;
+  }
+}
@@ -0,0 +1,314 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing;
+
+import com.google.common.collect.Lists;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+import org.guiceyfruit.support.Closer;
+
+/** @version $Revision: 1.1 $ */
+public class InjectorManagerTest extends TestCase {
+  protected static final List<Object> closed = Collections.synchronizedList(Lists.newArrayList());
+  protected InjectorManager manager = new InjectorManager();
+
+  @Override
+  protected void setUp() throws Exception {
+    closed.clear();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    manager.closeSingletons();
+  }
+
+  public void testClassesWithTheSameModuleShareAnInjector() throws Exception {
+    FirstTest first = new FirstTest();
+    SecondTest second = new SecondTest();
+    runTest(first);
+    runTest(second);
+
+    assertEquals("injectors", 1, manager.getInjectorCount());
+    assertSame("shared singleton", first.value, second.value);
+  }
+
+  public void testLeastRecentlyUsedInjectorIsClosed() throws Exception {
+    manager.setMaxInjectors(1);
+
+    FirstTest first = new FirstTest();
+    runTest(first);
+    runTest(new OtherTest());
+
+    assertEquals("injectors", 1, manager.getInjectorCount());
+    assertEquals("closed", Lists.<Object>newArrayList(first.value), closed);
+
+    SecondTest second = new SecondTest();
+    runTest(second);
+    assertNotSame("recreated singleton", first.value, second.value);
+  }
+
+  public void testInjectorInUseIsNotEvicted() throws Exception {
+    manager.setMaxInjectors(1);
+
+    FirstTest first = new FirstTest();
+    manager.beforeTest(first);
+    runTest(new OtherTest());
+    assertEquals("injectors", 2, manager.getInjectorCount());
+    assertTrue("nothing closed", closed.isEmpty());
+
+    manager.afterTest(first);
+  }
+
+  public void testTestScopeIsSeparateForEachThread() throws Exception {
+    final ScopedTest first = new ScopedTest();
+    final ScopedTest second = new ScopedTest();
+    manager.beforeTest(first);
+
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          runTest(second);
+        }
+        catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    thread.start();
+    thread.join();
+
+    assertNotSame("test scoped values", first.value, second.value);
+    assertEquals("closed", Lists.<Object>newArrayList(second.value), closed);
+
+    manager.afterTest(first);
+    assertEquals("closed", Lists.<Object>newArrayList(second.value, first.value), closed);
+  }
+
+  public void testInjectorsAreWarmedUpInTheBackground() throws Exception {
+    manager.setWarmUpThreads(2);
+    manager.warmUp(WarmUpTest.class, WarmUpTest.class);
+
+    for (int i = 0; i < 100 && WarmUpModule.configured.get() == 0; i++) {
+      Thread.sleep(50);
+    }
+    assertEquals("configured in the background", 1, WarmUpModule.configured.get());
+
+    runTest(new WarmUpTest());
+    assertEquals("configured", 1, WarmUpModule.configured.get());
+    assertEquals("injectors", 1, manager.getInjectorCount());
+  }
+
+  public void testQueuedWarmUpIsRunByTheTestThread() throws Exception {
+    SlowModule.latch = new CountDownLatch(1);
+    manager.setWarmUpThreads(1);
+    try {
+      manager.warmUp(SlowTest.class, FirstTest.class);
+
+      // the first test must not wait for the slow injector ahead of it in the warm up queue
+      runTest(new FirstTest());
+      assertEquals("injectors", 1, manager.getInjectorCount());
+    }
+    finally {
+      SlowModule.latch.countDown();
+    }
+  }
+
+  public void testWarmUpOfOverlayDoesNotWaitForQueuedBase() throws Exception {
+    SlowModule.latch = new CountDownLatch(1);
+    manager.setWarmUpThreads(2);
+    try {
+      // the overlay is warmed up while its base is still queued behind the slow injector
+      manager.warmUp(SlowTest.class, OverlayTest.class, FirstTest.class);
+
+      OverlayTest overlay = new OverlayTest();
+      runTest(overlay);
+      assertNotNull("overlay binding", overlay.extra);
+    }
+    finally {
+      SlowModule.latch.countDown();
+    }
+  }
+
+  public void testOverlayIsLayeredOnTheSharedInjector() throws Exception {
+    FirstTest first = new FirstTest();
+    OverlayTest overlay = new OverlayTest();
+    runTest(first);
+    runTest(overlay);
+
+    assertSame("shared singleton", first.value, overlay.value);
+    assertNotNull("overlay binding", overlay.extra);
+    assertEquals("injectors", 2, manager.getInjectorCount());
+  }
+
+  public void testOverlayWhichRebindsKeysGetsItsOwnInjector() throws Exception {
+    FirstTest first = new FirstTest();
+    RebindingTest rebinding = new RebindingTest();
+    runTest(first);
+    runTest(rebinding);
+
+    assertTrue("rebound", rebinding.value instanceof OtherValue);
+    assertFalse("first", first.value instanceof OtherValue);
+  }
+
+  public void testTimingsAreRecordedWhenEnabled() throws Exception {
+    System.setProperty(TestTimings.TIMINGS, "true");
+    try {
+      manager = new InjectorManager();
+    }
+    finally {
+      System.clearProperty(TestTimings.TIMINGS);
+    }
+    runTest(new FirstTest());
+    manager.afterClasses(FirstTest.class);
+    manager.closeSingletons();
+
+    List<TestTimings.Timing> list = manager.getTimings().getTimings();
+    assertEquals("timings: " + list, 5, list.size());
+    String report = manager.getTimings().report();
+    assertTrue(report, report.contains(ValueModule.class.getName()));
+    assertTrue(report, report.contains(FirstTest.class.getName()));
+  }
+
+  public void testTimingsAreNotRecordedByDefault() throws Exception {
+    runTest(new FirstTest());
+    assertTrue("timings", manager.getTimings().getTimings().isEmpty());
+  }
+
+  protected void runTest(Object test) throws Exception {
+    manager.beforeTest(test);
+    manager.afterTest(test);
+  }
+
+  @Singleton
+  public static class Value {
+  }
+
+  public static class OtherValue extends Value {
+  }
+
+  public static class Extra {
+  }
+
+  public static class RecordingCloser implements Closer {
+    public void close(Object object) throws Throwable {
+      closed.add(object);
+    }
+  }
+
+  public static class ValueModule extends AbstractModule {
+    protected void configure() {
+      bind(Value.class);
+      bind(Closer.class).to(RecordingCloser.class);
+    }
+  }
+
+  @TestScoped
+  public static class TestValue {
+  }
+
+  public static class ScopedModule extends AbstractModule {
+    protected void configure() {
+      bind(TestValue.class);
+      bind(Closer.class).to(RecordingCloser.class);
+    }
+  }
+
+  public static class WarmUpModule extends AbstractModule {
+    static final AtomicInteger configured = new AtomicInteger();
+
+    protected void configure() {
+      configured.incrementAndGet();
+    }
+  }
+
+  public static class SlowModule extends AbstractModule {
+    static CountDownLatch latch;
+
+    protected void configure() {
+      try {
+        latch.await();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  public static class ExtraModule extends AbstractModule {
+    protected void configure() {
+      bind(Extra.class);
+    }
+  }
+
+  public static class RebindingModule extends AbstractModule {
+    protected void configure() {
+      bind(Value.class).to(OtherValue.class);
+    }
+  }
+
+  public static class OtherModule extends AbstractModule {
+    protected void configure() {
+    }
+  }
+
+  @UseModule(ValueModule.class)
+  public static class FirstTest {
+    @Inject Value value;
+  }
+
+  @UseModule(ValueModule.class)
+  public static class SecondTest {
+    @Inject Value value;
+  }
+
+  @UseModule(ScopedModule.class)
+  public static class ScopedTest {
+    @Inject TestValue value;
+  }
+
+  @UseModule(value = ValueModule.class, overlay = ExtraModule.class)
+  public static class OverlayTest {
+    @Inject Value value;
+    @Inject Extra extra;
+  }
+
+  @UseModule(value = ValueModule.class, overlay = RebindingModule.class)
+  public static class RebindingTest {
+    @Inject Value value;
+  }
+
+  @UseModule(WarmUpModule.class)
+  public static class WarmUpTest {
+  }
+
+  @UseModule(OtherModule.class)
+  public static class OtherTest {
+  }
+
+  @UseModule(SlowModule.class)
+  public static class SlowTest {
+  }
+}
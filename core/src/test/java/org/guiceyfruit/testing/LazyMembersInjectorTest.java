@@ -0,0 +1,101 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import junit.framework.TestCase;
+import org.guiceyfruit.jsr250.Jsr250Module;
+
+/** @version $Revision: 1.1 $ */
+public class LazyMembersInjectorTest extends TestCase {
+  protected static final AtomicInteger created = new AtomicInteger(0);
+
+  protected Injector injector = Guice.createInjector(new Jsr250Module(), new AbstractModule() {
+    protected void configure() {
+      bind(Cheese.class).to(Cheddar.class);
+      bind(String.class).annotatedWith(Names.named("name")).toInstance("Edam");
+    }
+  });
+
+  public void testProxyIsOnlyCreatedWhenUsed() throws Exception {
+    created.set(0);
+    LazyTest test = new LazyTest();
+    new LazyMembersInjector(injector).injectMembers(test);
+
+    assertNotNull("cheese", test.cheese);
+    assertTrue("toString", test.cheese.toString().contains(Cheese.class.getName()));
+    assertEquals("equals", test.cheese, test.cheese);
+    test.cheese.hashCode();
+    assertEquals("created", 0, created.get());
+
+    assertEquals("cheese.getName", "Cheddar", test.cheese.getName());
+    assertEquals("created", 1, created.get());
+  }
+
+  public void testListenerMembersAreInjected() throws Exception {
+    created.set(0);
+    ResourceTest test = new ResourceTest();
+    new LazyMembersInjector(injector).injectMembers(test);
+
+    assertEquals("name", "Edam", test.name);
+    assertTrue("started", test.started);
+    assertEquals("cheese.getName", "Cheddar", test.cheese.getName());
+  }
+
+  public interface Cheese {
+    String getName();
+  }
+
+  public static class Cheddar implements Cheese {
+    public Cheddar() {
+      created.incrementAndGet();
+    }
+
+    public String getName() {
+      return "Cheddar";
+    }
+  }
+
+  public static class LazyTest {
+    @Inject
+    Cheese cheese;
+  }
+
+  public static class ResourceTest {
+    @Inject
+    Cheese cheese;
+
+    @Resource
+    String name;
+
+    boolean started;
+
+    @PostConstruct
+    public void start() {
+      started = true;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.util;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import junit.framework.TestCase;
+import org.guiceyfruit.Injectors;
+
+/** @version $Revision: 1.1 $ */
+public class WarmUpScopeTest extends TestCase {
+  protected static final AtomicInteger created = new AtomicInteger(0);
+
+  public void testObjectsAreWarmedUpAfterInjectorIsCreated() throws Exception {
+    created.set(0);
+    final WarmUpScope scope = new WarmUpScope();
+    Injector injector = Injectors.createInjector(new HashMap(), new AbstractModule() {
+      protected void configure() {
+        bindScope(WarmUpScoped.class, scope);
+        bind(WarmUpScope.class).toInstance(scope);
+        bind(Cache.class);
+      }
+    });
+
+    scope.awaitWarmUp(5, TimeUnit.SECONDS);
+    assertTrue("scope.isWarmedUp", scope.isWarmedUp());
+    assertEquals("created", 1, created.get());
+
+    Cache cache = injector.getInstance(Cache.class);
+    assertSame("cache", cache, injector.getInstance(Cache.class));
+    assertEquals("created", 1, created.get());
+    scope.stop();
+  }
+
+  public void testObjectsAreCreatedOnRequestBeforeWarmUp() throws Exception {
+    created.set(0);
+    final WarmUpScope scope = new WarmUpScope();
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        bindScope(WarmUpScoped.class, scope);
+        bind(Cache.class);
+      }
+    });
+    assertEquals("created", 0, created.get());
+
+    Cache cache = injector.getInstance(Cache.class);
+    scope.start(injector);
+    scope.awaitWarmUp(5, TimeUnit.SECONDS);
+    assertSame("cache", cache, injector.getInstance(Cache.class));
+    assertEquals("created", 1, created.get());
+    scope.stop();
+  }
+
+  public void testWarmUpDoesNotDeadlockWithSingletonCreation() throws Exception {
+    serviceStarted = new CountDownLatch(1);
+    lookupStarted = new CountDownLatch(1);
+    final WarmUpScope scope = new WarmUpScope();
+    final Injector injector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        bindScope(WarmUpScoped.class, scope);
+        bind(Lookup.class);
+      }
+    });
+
+    // the warm up creates the lookup, which needs a singleton, while the singleton service
+    // which needs the lookup is being created
+    scope.start(injector);
+    assertTrue("lookup started", lookupStarted.await(5, TimeUnit.SECONDS));
+    final AtomicReference<Service> service = new AtomicReference<Service>();
+    Thread thread = new Thread() {
+      public void run() {
+        service.set(injector.getInstance(Service.class));
+      }
+    };
+    thread.setDaemon(true);
+    thread.start();
+    thread.join(10000);
+
+    assertNotNull("service created", service.get());
+    scope.awaitWarmUp(5, TimeUnit.SECONDS);
+    assertSame("lookup", service.get().lookup, injector.getInstance(Lookup.class));
+    scope.stop();
+  }
+
+  protected static CountDownLatch serviceStarted;
+  protected static CountDownLatch lookupStarted;
+
+  @Singleton
+  public static class Config {
+  }
+
+  @WarmUpScoped
+  public static class Lookup {
+    final Config config;
+
+    @Inject
+    public Lookup(Provider<Config> config) throws InterruptedException {
+      lookupStarted.countDown();
+      serviceStarted.await(1, TimeUnit.SECONDS);
+      this.config = config.get();
+    }
+  }
+
+  @Singleton
+  public static class Service {
+    final Lookup lookup;
+
+    @Inject
+    public Service(Provider<Lookup> lookup) {
+      serviceStarted.countDown();
+      this.lookup = lookup.get();
+    }
+  }
+
+  @WarmUpScoped
+  public static class Cache {
+    public Cache() {
+      created.incrementAndGet();
+    }
+  }
+}
@@ -25,14 +25,19 @@ import org.guiceyfruit.testing.InjectorManager;
 public class GuiceyTestCase extends TestCase {
   protected static InjectorManager injectorManager;
 
+  public GuiceyTestCase() {
+    getInjectorManager().warmUp(getClass());
+  }
+
+  public GuiceyTestCase(String name) {
+    super(name);
+    getInjectorManager().warmUp(getClass());
+  }
+
   @Override
   protected void setUp() throws Exception {
-    synchronized (GuiceyTestCase.class) {
-      if (injectorManager == null) {
-        injectorManager = new InjectorManager();
-        injectorManager.beforeClasses();
-      }
-    }
+    // only registers the shutdown hook the first time it is called
+    getInjectorManager().beforeClasses();
 
     super.setUp();
 
@@ -43,4 +48,15 @@ public class GuiceyTestCase extends TestCase {
   protected void tearDown() throws Exception {
     injectorManager.afterTest(this);
   }
+
+  /**
+   * Returns the shared injector manager; the test suite creates all of its test cases up front so
+   * the injectors for later tests can be warmed up while the first tests run
+   */
+  protected static synchronized InjectorManager getInjectorManager() {
+    if (injectorManager == null) {
+      injectorManager = new InjectorManager();
+    }
+    return injectorManager;
+  }
 }
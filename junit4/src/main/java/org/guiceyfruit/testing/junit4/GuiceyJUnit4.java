@@ -32,6 +32,10 @@ public class GuiceyJUnit4 extends BlockJUnit4ClassRunner {
 
   public GuiceyJUnit4(Class<?> aClass) throws InitializationError {
     super(aClass);
+
+    // runners are created for all of the test classes before any are run so the injectors for
+    // later test classes can be warmed up while the first ones run
+    manager.warmUp(aClass);
   }
 
   @Override
@@ -53,11 +57,12 @@ public class GuiceyJUnit4 extends BlockJUnit4ClassRunner {
       public void evaluate() throws Throwable {
         parent.evaluate();
 
-        manager.afterClasses();
+        manager.afterClasses(getTestClass().getJavaClass());
       }
     };
   }
 
+  /** Injects the test before any of its @Before methods are run */
   @Override
   protected Statement withBefores(FrameworkMethod frameworkMethod, final Object test,
       Statement statement) {
@@ -71,15 +76,34 @@ public class GuiceyJUnit4 extends BlockJUnit4ClassRunner {
     };
   }
 
+  /**
+   * Closes the test scope after the @After methods have run, even if the test or its @Before or
+   * @After methods fail, reporting the first failure
+   */
   @Override
   protected Statement withAfters(FrameworkMethod frameworkMethod, final Object test,
       Statement statement) {
-    final Statement parent = super.withBefores(frameworkMethod, test, statement);
+    final Statement parent = super.withAfters(frameworkMethod, test, statement);
     return new Statement() {
       public void evaluate() throws Throwable {
-        parent.evaluate();
-
-        manager.afterTest(test);
+        Throwable failure = null;
+        try {
+          parent.evaluate();
+        }
+        catch (Throwable e) {
+          failure = e;
+        }
+        try {
+          manager.afterTest(test);
+        }
+        catch (Throwable e) {
+          if (failure == null) {
+            failure = e;
+          }
+        }
+        if (failure != null) {
+          throw failure;
+        }
       }
     };
   }
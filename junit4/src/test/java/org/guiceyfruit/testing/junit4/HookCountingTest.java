@@ -0,0 +1,96 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing.junit4;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.guiceyfruit.closers.ClosersModule;
+import org.guiceyfruit.testing.TestScoped;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Checks that each test is injected once, its @Before and @After methods are run once and its
+ * test scope is closed once
+ *
+ * @version $Revision: 1.1 $
+ */
+@RunWith(GuiceyJUnit4.class)
+public class HookCountingTest {
+  protected static final AtomicInteger befores = new AtomicInteger(0);
+  protected static final AtomicInteger afters = new AtomicInteger(0);
+  protected static final AtomicInteger injections = new AtomicInteger(0);
+  protected static final AtomicInteger closes = new AtomicInteger(0);
+
+  protected Resource resource;
+
+  @Inject
+  public void setResource(Resource resource) {
+    injections.incrementAndGet();
+    this.resource = resource;
+  }
+
+  @Before
+  public void before() {
+    Assert.assertNotNull("injected before @Before", resource);
+    befores.incrementAndGet();
+  }
+
+  @After
+  public void after() {
+    afters.incrementAndGet();
+  }
+
+  @Test
+  public void testOne() {
+    Assert.assertEquals("befores", afters.get() + 1, befores.get());
+  }
+
+  @Test
+  public void testTwo() {
+    Assert.assertEquals("befores", afters.get() + 1, befores.get());
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    Assert.assertEquals("befores", 2, befores.get());
+    Assert.assertEquals("afters", 2, afters.get());
+    Assert.assertEquals("injections", 2, injections.get());
+    Assert.assertEquals("closes", 2, closes.get());
+  }
+
+  @TestScoped
+  public static class Resource implements Closeable {
+    public void close() {
+      closes.incrementAndGet();
+    }
+  }
+
+  public static class TestModule extends AbstractModule {
+    protected void configure() {
+      install(new ClosersModule());
+    }
+  }
+}
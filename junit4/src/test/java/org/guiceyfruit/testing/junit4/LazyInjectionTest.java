@@ -0,0 +1,67 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing.junit4;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.guiceyfruit.testing.LazyInjection;
+import org.guiceyfruit.testing.junit4.example.Cheddar;
+import org.guiceyfruit.testing.junit4.example.Cheese;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** @version $Revision: 1.1 $ */
+@RunWith(GuiceyJUnit4.class)
+@LazyInjection
+public class LazyInjectionTest {
+  protected static final AtomicInteger created = new AtomicInteger(0);
+
+  @Inject
+  Cheese cheese;
+
+  @Inject
+  Provider<Cheese> cheeseProvider;
+
+  @Test
+  public void testCheeseIsOnlyCreatedWhenUsed() {
+    int before = created.get();
+    Assert.assertNotNull("cheese", cheese);
+    Assert.assertNotNull("cheeseProvider", cheeseProvider);
+    Assert.assertEquals("created", before, created.get());
+
+    Assert.assertEquals("cheese.sayHello", "Cheddar James", cheese.sayHello("James"));
+    Assert.assertEquals("cheese.sayHello", "Cheddar Hiram", cheese.sayHello("Hiram"));
+    Assert.assertEquals("created", before + 1, created.get());
+  }
+
+  public static class CountingCheddar extends Cheddar {
+    public CountingCheddar() {
+      created.incrementAndGet();
+    }
+  }
+
+  public static class TestModule extends AbstractModule {
+    protected void configure() {
+      bind(Cheese.class).to(CountingCheddar.class);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing.junit5;
+
+import org.guiceyfruit.testing.InjectorManager;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+
+/**
+ * A JUnit 5 extension which injects test instances using the module from the {@link
+ * org.guiceyfruit.testing.UseModule} annotation or the nested <code>TestModule</code> class.
+ * Use it by annotating a test class with <code>@ExtendWith(GuiceyExtension.class)</code>.
+ *
+ * The {@link org.guiceyfruit.testing.TestScoped} scope is closed after each test and the {@link
+ * org.guiceyfruit.testing.ClassScoped} scope after all the tests of a class. The injectors are
+ * shared by all test classes via the root {@link Store} and their singletons are closed when the
+ * test plan completes. It is safe to use with parallel test execution.
+ *
+ * @version $Revision: 1.1 $
+ */
+public class GuiceyExtension implements AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+  private static final Namespace NAMESPACE = Namespace.create(GuiceyExtension.class);
+
+  public void beforeEach(ExtensionContext context) throws Exception {
+    getInjectorManager(context).beforeTest(context.getRequiredTestInstance());
+  }
+
+  public void afterEach(ExtensionContext context) throws Exception {
+    getInjectorManager(context).afterTest(context.getRequiredTestInstance());
+  }
+
+  public void afterAll(ExtensionContext context) throws Exception {
+    getInjectorManager(context).afterClasses(context.getRequiredTestClass());
+  }
+
+  /**
+   * Returns the injector manager shared by all the test classes, which is stored in the root
+   * store so that it is closed when the test plan completes
+   */
+  protected InjectorManager getInjectorManager(ExtensionContext context) {
+    Store store = context.getRoot().getStore(NAMESPACE);
+    return store.getOrComputeIfAbsent(ManagedInjectors.class, type -> new ManagedInjectors(),
+        ManagedInjectors.class).getManager();
+  }
+
+  /** Closes the singletons of the injectors when the root store is closed */
+  static class ManagedInjectors implements Store.CloseableResource {
+    private final InjectorManager manager = new InjectorManager();
+
+    public InjectorManager getManager() {
+      return manager;
+    }
+
+    public void close() throws Throwable {
+      try {
+        manager.closeSingletons();
+      }
+      finally {
+        if (manager.getTimings().isEnabled()) {
+          System.out.println(manager.getTimings().report());
+        }
+      }
+    }
+  }
+}
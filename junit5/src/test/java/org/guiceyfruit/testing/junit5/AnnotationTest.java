@@ -0,0 +1,42 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing.junit5;
+
+import com.google.inject.Inject;
+import org.guiceyfruit.testing.UseModule;
+import org.guiceyfruit.testing.junit5.example.Cheese;
+import org.guiceyfruit.testing.junit5.example.EdamModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** @version $Revision: 1.1 $ */
+@ExtendWith(GuiceyExtension.class)
+@UseModule(EdamModule.class)
+public class AnnotationTest {
+  @Inject
+  Cheese cheese;
+
+  @Test
+  public void testSomething() {
+    System.out.println("Running!");
+
+    Assertions.assertEquals("Edam James", cheese.sayHello("James"), "cheese.sayHello");
+  }
+}
\ No newline at end of file
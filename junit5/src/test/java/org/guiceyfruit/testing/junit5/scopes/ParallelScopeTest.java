@@ -0,0 +1,91 @@
+/**
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guiceyfruit.testing.junit5.scopes;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.guiceyfruit.closers.ClosersModule;
+import org.guiceyfruit.testing.ClassScoped;
+import org.guiceyfruit.testing.TestScoped;
+import org.guiceyfruit.testing.junit5.GuiceyExtension;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/** @version $Revision: 1.1 $ */
+@ExtendWith(GuiceyExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public class ParallelScopeTest {
+  protected static final Set<Object> classValues
+      = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+  protected static final Set<Object> testValues
+      = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+  @Inject
+  protected PerClass perClass;
+  @Inject
+  protected PerTest perTest;
+  @Inject
+  protected PerTest perTest2;
+
+  @RepeatedTest(8)
+  public void testScopes() throws Exception {
+    Assertions.assertSame(perTest, perTest2, "perTest");
+    Assertions.assertFalse(perTest.closed, "perTest.closed");
+
+    // give the other tests a chance to run at the same time
+    Thread.sleep(20);
+
+    Assertions.assertFalse(perTest.closed, "perTest.closed");
+    classValues.add(perClass);
+    testValues.add(perTest);
+  }
+
+  @AfterAll
+  public static void afterClass() {
+    Assertions.assertEquals(1, classValues.size(), "class scoped values");
+    Assertions.assertEquals(8, testValues.size(), "test scoped values");
+  }
+
+  @ClassScoped
+  public static class PerClass {
+  }
+
+  @TestScoped
+  public static class PerTest implements Closeable {
+    volatile boolean closed;
+
+    public void close() {
+      closed = true;
+    }
+  }
+
+  public static class TestModule extends AbstractModule {
+    protected void configure() {
+      install(new ClosersModule());
+    }
+  }
+}
@@ -28,14 +28,16 @@ import org.testng.annotations.BeforeMethod;
 public class GuiceyTestCase {
   protected static InjectorManager injectorManager;
 
+  public GuiceyTestCase() {
+    // TestNG creates all of the test instances of a suite before running them so the injectors
+    // for later test classes can be warmed up while the first ones run
+    getInjectorManager().warmUp(getClass());
+  }
+
   @BeforeClass(alwaysRun = true)
   protected void setUp() throws Exception {
-    synchronized (GuiceyTestCase.class) {
-      if (injectorManager == null) {
-        injectorManager = new InjectorManager();
-        injectorManager.beforeClasses();
-      }
-    }
+    // only registers the shutdown hook the first time it is called
+    getInjectorManager().beforeClasses();
   }
 
   @BeforeMethod(alwaysRun = true)
@@ -51,7 +53,14 @@ public class GuiceyTestCase {
   @AfterClass(alwaysRun = true)
   protected void tearDown() throws Exception {
     if (injectorManager != null) {
-      injectorManager.afterClasses();
+      injectorManager.afterClasses(getClass());
+    }
+  }
+
+  protected static synchronized InjectorManager getInjectorManager() {
+    if (injectorManager == null) {
+      injectorManager = new InjectorManager();
     }
+    return injectorManager;
   }
 }
\ No newline at end of file